@@ -0,0 +1,61 @@
+package com.aeraf.security.config;
+
+import com.aeraf.security.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Runs before BasicAuthenticationFilter: a request with Basic credentials goes ahead only while its IP
+// and username have tokens left, otherwise it gets 429 without touching the database or BCrypt.
+// The tokens are taken on the way in, so a concurrent burst of bad attempts cannot get past the
+// capacity, and refunded unless the request ends in 401, so only failed attempts use up the budget.
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String userName = basicUserName(request);
+        if (userName == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String ip = request.getRemoteAddr();
+        LoginThrottle.Attempt admission = this.loginThrottle.tryAcquire(ip, userName);
+        if (!admission.admitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, (admission.waitNanos() + 999_999_999) / 1_000_000_000)));
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (response.getStatus() != HttpStatus.UNAUTHORIZED.value()) {
+            this.loginThrottle.refund(admission); // Credentials accepted; a request that threw keeps its tokens
+        }
+    }
+
+    private static String basicUserName(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon < 0 ? credentials : credentials.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            return ""; // Still counted against the IP's budget
+        }
+    }
+}
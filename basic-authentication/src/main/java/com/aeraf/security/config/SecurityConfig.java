@@ -1,6 +1,8 @@
 package com.aeraf.security.config;
 
 import com.aeraf.security.service.CustomUserDetailsService;
+import com.aeraf.security.service.LoginThrottle;
+import com.aeraf.security.service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,28 +14,33 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 //@EnableWebSecurity
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, PasswordHashingService passwordHashingService,
+                          LoginThrottle loginThrottle) {
         this.userDetailsService = userDetailsService;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(this.userDetailsService);
-        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(5);
-        provider.setPasswordEncoder(bCryptPasswordEncoder);
+        provider.setPasswordEncoder(this.passwordHashingService);
+        provider.setUserDetailsPasswordService(this.userDetailsService); // Rehash on login
         return provider;
     }
 
@@ -59,6 +66,8 @@ public class SecurityConfig {
         httpSecurity.authorizeHttpRequests(auth -> auth.requestMatchers("/admin-logs").hasRole("ADMIN"));
 
         httpSecurity.httpBasic(Customizer.withDefaults()); // Basic Authentication
+        httpSecurity.addFilterBefore(new HashingBackpressureFilter(), BasicAuthenticationFilter.class);
+        httpSecurity.addFilterBefore(new LoginThrottleFilter(this.loginThrottle), HashingBackpressureFilter.class);
 
         return httpSecurity.build();
     }
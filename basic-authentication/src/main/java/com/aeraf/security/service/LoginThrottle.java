@@ -0,0 +1,224 @@
+package com.aeraf.security.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Per-IP and per-username token buckets that every HTTP Basic attempt takes a token from before the
+// user is loaded or a hash is checked. A bucket is one AtomicLong (GCRA arrival time) updated by
+// CAS, so contended attempts never lock. Buckets that have refilled are swept each refill period,
+// and at most max-keys are kept per map; keys beyond that share a single overflow bucket.
+// Tokens are taken on admission, so a concurrent burst gets at most capacity attempts through, and
+// handed back once the credentials are accepted, so normal API use is not limited.
+@Component
+public class LoginThrottle {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final Buckets byIp;
+    private final Buckets byUser;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginThrottle(@Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${security.login-throttle.ip.refill-period:1m}") Duration ipRefillPeriod,
+                         @Value("${security.login-throttle.user.capacity:10}") int userCapacity,
+                         @Value("${security.login-throttle.user.refill-period:1m}") Duration userRefillPeriod,
+                         @Value("${security.login-throttle.max-keys:100000}") int maxKeys) {
+        this(new Buckets(ipCapacity, ipRefillPeriod, maxKeys), new Buckets(userCapacity, userRefillPeriod, maxKeys),
+                System::nanoTime);
+    }
+
+    LoginThrottle(Buckets byIp, Buckets byUser, LongSupplier nanoTime) {
+        this.byIp = byIp;
+        this.byUser = byUser;
+        this.nanoTime = nanoTime;
+    }
+
+    // Takes a token from the IP's and the username's bucket, or neither if either is empty
+    public Attempt tryAcquire(String ip, String userName) {
+        long now = nanoTime.getAsLong();
+        AtomicLong ipToken = byIp.tryAcquire(ip, now);
+        if (ipToken == null) {
+            return Attempt.throttled(byIp.waitTime(ip, now));
+        }
+        if (userName == null) {
+            return new Attempt(ipToken, null, 0);
+        }
+        String userKey = userKey(userName);
+        AtomicLong userToken = byUser.tryAcquire(userKey, now);
+        if (userToken == null) {
+            byIp.refund(ipToken, now); // Never attempted
+            return Attempt.throttled(byUser.waitTime(userKey, now));
+        }
+        return new Attempt(ipToken, userToken, 0);
+    }
+
+    // Gives an admitted attempt's tokens back once its credentials were accepted, so only failures add up
+    public void refund(Attempt attempt) {
+        if (!attempt.admitted()) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        byIp.refund(attempt.ipToken, now);
+        if (attempt.userToken != null) {
+            byUser.refund(attempt.userToken, now);
+        }
+    }
+
+    // An admitted attempt holds the buckets it took from; a throttled one, the nanoseconds until it would be admitted
+    public static final class Attempt {
+        private final AtomicLong ipToken;
+        private final AtomicLong userToken;
+        private final long waitNanos;
+
+        private Attempt(AtomicLong ipToken, AtomicLong userToken, long waitNanos) {
+            this.ipToken = ipToken;
+            this.userToken = userToken;
+            this.waitNanos = waitNanos;
+        }
+
+        private static Attempt throttled(long waitNanos) {
+            return new Attempt(null, null, Math.max(1, waitNanos));
+        }
+
+        public boolean admitted() {
+            return waitNanos == 0;
+        }
+
+        public long waitNanos() {
+            return waitNanos;
+        }
+    }
+
+    // Case and padding variants of one name share a bucket
+    private static String userKey(String userName) {
+        String key = userName.strip().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    // GCRA buckets: capacity attempts at once, refilled at capacity per refill period
+    static final class Buckets {
+        private static final long RETIRED = Long.MIN_VALUE; // Swept; attempts must look the key up again
+
+        private final long interval;
+        private final long tolerance;
+        private final long sweepEvery;
+        private final int maxKeys;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE + 1);
+        private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger live = new AtomicInteger();
+
+        Buckets(int capacity, Duration refillPeriod, int maxKeys) {
+            this.interval = refillPeriod.toNanos() / capacity;
+            this.tolerance = interval * (capacity - 1);
+            this.sweepEvery = refillPeriod.toNanos();
+            this.maxKeys = maxKeys;
+        }
+
+        // Nanoseconds until the key has a token again, 0 if it has one now; never creates a bucket
+        long waitTime(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null && live.get() >= maxKeys) {
+                bucket = overflow; // Where an attempt for this key would take its token
+            }
+            long stored = bucket == null ? RETIRED : bucket.get();
+            if (stored == RETIRED || stored <= now) {
+                return 0; // Full
+            }
+            return Math.max(0, stored - now - tolerance);
+        }
+
+        // Takes a token with a single CAS if one is left and returns its bucket, otherwise null. Concurrent
+        // attempts race on the same arrival time, so at most capacity of a burst get a token.
+        AtomicLong tryAcquire(String key, long now) {
+            sweepIfDue(now);
+            while (true) {
+                AtomicLong bucket = bucket(key, now);
+                long stored = bucket.get();
+                if (stored == RETIRED) {
+                    continue;
+                }
+                long next = Math.max(stored, now) + interval;
+                if (next - now > tolerance + interval) {
+                    return null;
+                }
+                if (bucket.compareAndSet(stored, next)) {
+                    return bucket;
+                }
+            }
+        }
+
+        // Returns a token to the bucket it came from; a bucket that has refilled (or was swept) is already full
+        void refund(AtomicLong bucket, long now) {
+            while (true) {
+                long stored = bucket.get();
+                if (stored == RETIRED || stored <= now || bucket.compareAndSet(stored, Math.max(now, stored - interval))) {
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return buckets.size();
+        }
+
+        private AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null && bucket.get() != RETIRED) {
+                return bucket;
+            }
+            if (bucket != null && buckets.remove(key, bucket)) {
+                live.decrementAndGet();
+            }
+            if (!reserve()) {
+                sweep(now);
+                if (!reserve()) {
+                    return overflow;
+                }
+            }
+            AtomicLong created = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(key, created);
+            if (existing != null) {
+                live.decrementAndGet(); // Another thread added it first
+                return existing;
+            }
+            return created;
+        }
+
+        // Claims a slot before inserting, so concurrent inserts cannot overshoot maxKeys
+        private boolean reserve() {
+            if (live.incrementAndGet() > maxKeys) {
+                live.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void sweepIfDue(long now) {
+            long due = nextSweep.get();
+            if (now >= due && nextSweep.compareAndSet(due, now + sweepEvery)) {
+                sweep(now);
+            }
+        }
+
+        // Drops full buckets; the CAS to RETIRED fails if an attempt got there first
+        private void sweep(long now) {
+            buckets.forEach((key, bucket) -> {
+                long stored = bucket.get();
+                if (stored != RETIRED && stored <= now && bucket.compareAndSet(stored, RETIRED) && buckets.remove(key, bucket)) {
+                    live.decrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.aeraf.security.service;
+
+// Thrown when the hashing pool and its queue are full
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many password hashing requests");
+    }
+}
@@ -3,7 +3,6 @@ package com.aeraf.security.service;
 import com.aeraf.security.model.User;
 import com.aeraf.security.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,16 +11,17 @@ import java.util.List;
 public class UserService {
 
     private UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
 
     @Autowired
-    public UserService(UserRepository repository) {
+    public UserService(UserRepository repository, PasswordHashingService passwordHashingService) {
         this.userRepository = repository;
+        this.passwordHashingService = passwordHashingService;
     }
 
     public User createUser(User user) {
-        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(5);
         String rawPassword = user.getPassword();
-        String hashedPassword = bCryptPasswordEncoder.encode(rawPassword);
+        String hashedPassword = this.passwordHashingService.encode(rawPassword);
         user.setPassword(hashedPassword);
         return this.userRepository.save(user);
     }
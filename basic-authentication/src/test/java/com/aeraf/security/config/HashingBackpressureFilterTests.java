@@ -0,0 +1,68 @@
+package com.aeraf.security.config;
+
+import com.aeraf.security.service.PasswordHashingBusyException;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashingBackpressureFilterTests {
+
+	@Test
+	void saturatedHashingPoolAnswersBasicRequestsWith429() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/secured");
+		request.addHeader("Authorization", "Basic " + Base64.getEncoder().encodeToString("alice:secret".getBytes(StandardCharsets.UTF_8)));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new HashingBackpressureFilter().doFilter(request, response,
+				new MockFilterChain(new jakarta.servlet.http.HttpServlet() {}, basicFilter(new BusyEncoder())));
+
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+	}
+
+	@Test
+	void otherFailuresPassThrough() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThatThrownBy(() -> new HashingBackpressureFilter().doFilter(request, response, (req, res) -> {
+			throw new ServletException(new IllegalStateException("boom"));
+		})).isInstanceOf(ServletException.class);
+	}
+
+	private static BasicAuthenticationFilter basicFilter(PasswordEncoder encoder) {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(new InMemoryUserDetailsManager(
+				User.withUsername("alice").password("hash").roles("SITEUSER").build()));
+		return new BasicAuthenticationFilter(new ProviderManager(provider));
+	}
+
+	// What PasswordHashingService does once its threads and queue are full
+	private static class BusyEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			throw new PasswordHashingBusyException();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			throw new PasswordHashingBusyException();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.aeraf.security.config;
+
+import com.aeraf.security.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleFilterTests {
+
+	private final LoginThrottle throttle = new LoginThrottle(20, Duration.ofMinutes(1), 10, Duration.ofMinutes(1), 1000);
+	private final LoginThrottleFilter filter = new LoginThrottleFilter(throttle);
+
+	@Test
+	void aConcurrentBurstOfBadPasswordsReachesAuthenticationAtMostCapacityTimes() throws Exception {
+		int requests = 32;
+		AtomicInteger authenticated = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		FilterChain badPassword = (req, res) -> { // Every admitted attempt is still in flight when the others arrive
+			authenticated.incrementAndGet();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			((HttpServletResponse) res).setStatus(401);
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(requests);
+		List<Future<Integer>> statuses = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			statuses.add(executor.submit(() -> {
+				start.await();
+				return send("alice:wrong", badPassword);
+			}));
+		}
+		start.countDown();
+		while (authenticated.get() < 10 && statuses.stream().anyMatch(s -> !s.isDone())) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(100); // Give any attempt that slipped through time to show up
+		release.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(authenticated).hasValue(10);
+		int throttled = 0;
+		for (Future<Integer> status : statuses) {
+			throttled += status.get() == 429 ? 1 : 0;
+		}
+		assertThat(throttled).isEqualTo(requests - 10);
+	}
+
+	@Test
+	void successfulRequestsAreRefundedAndNeverThrottled() throws Exception {
+		FilterChain ok = (req, res) -> ((HttpServletResponse) res).setStatus(200);
+		for (int i = 0; i < 100; i++) {
+			assertThat(send("alice:secret", ok)).isEqualTo(200);
+		}
+	}
+
+	@Test
+	void failuresRunOutAndGetRetryAfter() throws Exception {
+		FilterChain unauthorized = (req, res) -> ((HttpServletResponse) res).setStatus(401);
+		for (int i = 0; i < 10; i++) {
+			assertThat(send("Alice:wrong", unauthorized)).isEqualTo(401);
+		}
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(basicRequest("alice:wrong"), response, unauthorized);
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("6");
+		assertThat(send("bob:secret", (req, res) -> ((HttpServletResponse) res).setStatus(200))).isEqualTo(200);
+	}
+
+	@Test
+	void requestsWithoutBasicCredentialsAreNotThrottled() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("GET", "/greetings"), response, (req, res) -> ((HttpServletResponse) res).setStatus(401));
+			assertThat(response.getStatus()).isEqualTo(401);
+		}
+	}
+
+	private int send(String credentials, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(basicRequest(credentials), response, chain);
+		return response.getStatus();
+	}
+
+	private static MockHttpServletRequest basicRequest(String credentials) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/secured");
+		request.setRemoteAddr("10.0.0.1");
+		request.addHeader("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+		return request;
+	}
+}
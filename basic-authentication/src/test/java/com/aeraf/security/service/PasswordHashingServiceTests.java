@@ -0,0 +1,105 @@
+package com.aeraf.security.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTests {
+
+	private static final Executor CALLERS = task -> new Thread(task).start(); // One request thread per caller
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private PasswordHashingService service;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		service.stop();
+	}
+
+	@Test
+	void calibrationStaysWithinTheCostBounds() {
+		service = new PasswordHashingService(4, 1, 1, new VerifiedPasswords(Duration.ZERO, 0, nanos::get));
+
+		assertThat(PasswordHashingService.calibrate(Duration.ofMillis(1))).isEqualTo(PasswordHashingService.MIN_STRENGTH);
+		assertThat(PasswordHashingService.calibrate(Duration.ofDays(1))).isEqualTo(PasswordHashingService.MAX_STRENGTH);
+	}
+
+	@Test
+	void loginUpgradesHashesMadeWithALowerCost() {
+		service = new PasswordHashingService(6, 1, 4, new VerifiedPasswords(Duration.ofMinutes(1), 100, nanos::get));
+		InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+				User.withUsername("alice").password(new BCryptPasswordEncoder(4).encode("secret")).roles("SITEUSER").build());
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(service);
+		provider.setUserDetailsService(users);
+		provider.setUserDetailsPasswordService(users);
+
+		assertThat(service.upgradeEncoding(users.loadUserByUsername("alice").getPassword())).isTrue();
+		provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+		String stored = users.loadUserByUsername("alice").getPassword();
+		assertThat(stored).startsWith("$2a$06$");
+		assertThat(service.upgradeEncoding(stored)).isFalse();
+		provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret")); // The new hash still matches
+	}
+
+	@Test
+	void rejectsWorkOnceThreadsAndQueueAreFull() throws Exception {
+		service = new PasswordHashingService(4, 1, 1, new VerifiedPasswords(Duration.ofMinutes(1), 100, nanos::get));
+		String hash = new BCryptPasswordEncoder(4).encode("secret");
+
+		Runnable drain = saturate();
+		assertThatThrownBy(() -> service.encode("secret")).isInstanceOf(PasswordHashingBusyException.class);
+		assertThatThrownBy(() -> service.matches("secret", hash)).isInstanceOf(PasswordHashingBusyException.class);
+
+		drain.run();
+		assertThat(service.matches("secret", service.encode("secret"))).isTrue();
+	}
+
+	@Test
+	void rememberedChecksSkipBCryptUntilTheTtlExpires() throws Exception {
+		service = new PasswordHashingService(4, 1, 1, new VerifiedPasswords(Duration.ofMinutes(1), 100, nanos::get));
+		String hash = new BCryptPasswordEncoder(4).encode("secret");
+		assertThat(service.matches("secret", hash)).isTrue();
+
+		saturate();
+		assertThat(service.matches("secret", hash)).isTrue(); // Answered without the (full) hashing pool
+		assertThatThrownBy(() -> service.matches("wrong", hash)).isInstanceOf(PasswordHashingBusyException.class);
+
+		nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+		assertThatThrownBy(() -> service.matches("secret", hash)).isInstanceOf(PasswordHashingBusyException.class);
+	}
+
+	// Occupies the single hashing thread and queue slot until the returned Runnable (or tearDown) releases them
+	private Runnable saturate() throws InterruptedException {
+		CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> service.run(() -> release.await(10, TimeUnit.SECONDS)), CALLERS);
+		while (service.executor.getActiveCount() == 0 || !service.executor.getQueue().isEmpty()) { // Running, queue slot free
+			Thread.sleep(10);
+		}
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> service.run(() -> release.await(10, TimeUnit.SECONDS)), CALLERS);
+		while (service.executor.getQueue().isEmpty()) {
+			Thread.sleep(10);
+		}
+		return () -> {
+			release.countDown();
+			running.join();
+			queued.join();
+		};
+	}
+}
@@ -0,0 +1,99 @@
+package in.flacademy.benchmarks;
+
+import in.flacademy.hrms.HrmsApplication;
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.model.EmployeePage;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import in.flacademy.hrms.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The full joined load (EmployeeRepository.findAllWithDepartment, what the unpaged listing used to
+// return) against one directory page, on embedded H2; the page cost should stay flat as the
+// employees param grows
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeListingBenchmark {
+
+    @Param({"10000"})
+    public int employees;
+
+    @Param({"50"})
+    public int departments;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = startHrms();
+        DepartmentRepository departmentRepository = context.getBean(DepartmentRepository.class);
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+
+        List<Department> savedDepartments = new ArrayList<>();
+        for (int i = 0; i < departments; i++) {
+            savedDepartments.add(departmentRepository.save(new Department(null, "Department " + i)));
+        }
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < employees; i++) {
+            batch.add(new Employee(null, "Employee " + i, i % 3 == 0 ? "Manager" : "Engineer",
+                    savedDepartments.get(i % departments)));
+        }
+        employeeRepository.saveAll(batch);
+        employeeService = context.getBean(EmployeeService.class);
+        this.employeeRepository = employeeRepository;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    static ConfigurableApplicationContext startHrms() {
+        return new SpringApplicationBuilder(HrmsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:hrms-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false")
+                .run();
+    }
+
+    @Benchmark
+    public List<Employee> findAllWithDepartment() {
+        return employeeRepository.findAllWithDepartment();
+    }
+
+    @Benchmark
+    public EmployeePage getEmployeePage() {
+        return employeeService.getEmployeePage("Engineer", null, "name", "asc", null, 50, null);
+    }
+}
@@ -0,0 +1,77 @@
+package in.flacademy.benchmarks;
+
+import in.flacademy.hrms.model.EmployeeSearchHit;
+import in.flacademy.hrms.search.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// EmployeeSearchIndex.search for exact, prefix and one-typo queries over synthetic names;
+// the fuzzy case scans the term dictionary, so it is the one to watch as the vocabulary grows
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "bel", "cor", "dan", "el", "fin", "gar", "hal", "is", "jon",
+            "kel", "lin", "mar", "nor", "ol", "per", "quin", "ros", "sam", "tor", "ul", "ven", "wil", "yor"};
+    private static final String[] ROLES = {"Engineer", "Manager", "Analyst", "Designer", "Accountant", "Recruiter"};
+
+    @Param({"100000"})
+    public int employees;
+
+    private EmployeeSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new EmployeeSearchIndex();
+        for (int d = 0; d < 50; d++) {
+            index.putDepartment(d, "Department " + name(random));
+        }
+        for (int i = 0; i < employees; i++) {
+            index.putEmployee(i, name(random) + " " + name(random), ROLES[i % ROLES.length], (long) (i % 50));
+        }
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int s = 2 + random.nextInt(2); s > 0; s--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<EmployeeSearchHit> exact() {
+        return index.search("marquinros engineer", 20);
+    }
+
+    @Benchmark
+    public List<EmployeeSearchHit> prefix() {
+        return index.search("marq", 20);
+    }
+
+    @Benchmark
+    public List<EmployeeSearchHit> typo() {
+        return index.search("marquinrps", 20);
+    }
+}
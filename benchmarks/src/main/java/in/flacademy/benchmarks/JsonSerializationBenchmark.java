@@ -0,0 +1,65 @@
+package in.flacademy.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fla.db.model.Product;
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of Product and Employee listings, as written by the REST controllers
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Product> products;
+    private List<Employee> employees;
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>(size);
+        employees = new ArrayList<>(size);
+        Department department = new Department(1L, "Engineering", employees);
+        for (int i = 0; i < size; i++) {
+            products.add(new Product((long) i, "Product " + i, 10 + i, ProductCatalog.brand(i), "Category" + i % 50));
+            employees.add(new Employee((long) i, "Employee " + i, "Engineer", department));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws Exception {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serializeDepartmentWithEmployees() throws Exception {
+        return objectMapper.writeValueAsBytes(employees.get(0).getDepartment());
+    }
+}
@@ -0,0 +1,69 @@
+package in.flacademy.benchmarks;
+
+import com.nfcsolutionsusa.basicauth.service.JWTService;
+import com.nfcsolutionsusa.basicauth.service.JwtKeySet;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JWTService signing and (uncached) verification per algorithm: the shared HMAC secret against
+// ES256 and EdDSA key pairs, whose verifiers only need the public key
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JWTService jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (algorithm.equals("HS256")) {
+            jwtService = new JWTService();
+        } else {
+            KeyPairGenerator generator;
+            if (algorithm.equals("ES256")) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator = KeyPairGenerator.getInstance("Ed25519");
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            jwtService = new JWTService(new JwtKeySet("k1", keyPair.getPrivate(), Map.of("k1", keyPair.getPublic())), null);
+        }
+        token = jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtService.validateAndGetClaims(token);
+    }
+}
@@ -0,0 +1,113 @@
+package in.flacademy.benchmarks;
+
+import com.nfcsolutionsusa.basicauth.BasicauthApplication;
+import com.nfcsolutionsusa.basicauth.model.User;
+import com.nfcsolutionsusa.basicauth.model.UserPrincipal;
+import com.nfcsolutionsusa.basicauth.service.JWTService;
+import com.nfcsolutionsusa.basicauth.service.UserService;
+import com.nfcsolutionsusa.basicauth.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+// JWTService token signing/validation and the BCrypt-hashing UserService.register path of the jwt app
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JWTService jwtService;
+    private UserService userService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UserDetails userDetails;
+    private String token;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = startJwtApp();
+        jwtService = context.getBean(JWTService.class);
+        userService = context.getBean(UserService.class);
+        verifiedTokenCache = context.getBean(VerifiedTokenCache.class);
+
+        User user = new User();
+        user.setUserName("benchmark-user");
+        userDetails = new UserPrincipal(user);
+        token = jwtService.generateToken(user.getUserName());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    static ConfigurableApplicationContext startJwtApp() {
+        // The security filter chain needs a servlet context, so this one runs a web server on a random port
+        return new SpringApplicationBuilder(BasicauthApplication.class)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:jwt-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create-drop")
+                .run();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public Claims signAndVerify() {
+        // A fresh token through the whole verify path, so nothing can come from a cache
+        return jwtService.validateAndGetClaims(jwtService.generateToken("benchmark-user"));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        // The calls JwtFilter used to make for every authenticated request
+        String userName = jwtService.extractUserName(token);
+        return userName != null && jwtService.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public Claims validateAndGetClaims() {
+        return jwtService.validateAndGetClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        // What JwtFilter does now; a client reusing its token hits the cache
+        return verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public User register() {
+        User user = new User();
+        user.setUserName("user-" + call++);
+        user.setPwd("secret-password");
+        return userService.register(user);
+    }
+}
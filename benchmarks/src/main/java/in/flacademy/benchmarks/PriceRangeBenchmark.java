@@ -0,0 +1,95 @@
+package in.flacademy.benchmarks;
+
+import com.fla.db.model.Product;
+import com.fla.db.repository.ProductRepository;
+import com.fla.db.search.ProductPriceIndex;
+import com.fla.db.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Price range lookups: repository queries (table scan on price) vs. the primitive price index
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceRangeBenchmark {
+
+    @Param({"100000"})
+    public int products;
+
+    @Param({"5", "100"})
+    public int rangeWidth;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private ProductPriceIndex priceIndex;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = ProductCatalog.start(products);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+        priceIndex = context.getBean(ProductPriceIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int nextMinPrice() {
+        call++;
+        return (call * 37) % (int) (ProductCatalog.MAX_PRICE - rangeWidth);
+    }
+
+    @Benchmark
+    public List<Product> repositoryPriceRange() {
+        int min = nextMinPrice();
+        return productRepository.findByPriceBetween(min, min + rangeWidth);
+    }
+
+    @Benchmark
+    public List<Product> repositoryBrandPriceRange() {
+        int min = nextMinPrice();
+        return productRepository.getProductsByBrandPrice(ProductCatalog.brand(call), min, min + rangeWidth);
+    }
+
+    @Benchmark
+    public long[] indexPriceRange() {
+        int min = nextMinPrice();
+        return priceIndex.findIds(min, min + rangeWidth);
+    }
+
+    @Benchmark
+    public long[] indexBrandPriceRange() {
+        int min = nextMinPrice();
+        return priceIndex.findIds(ProductCatalog.brand(call), min, min + rangeWidth);
+    }
+
+    @Benchmark
+    public List<Product> servicePriceRange() {
+        // Index lookup plus loading the matching entities by primary key
+        int min = nextMinPrice();
+        return productService.getProductsByPrice(min, min + rangeWidth);
+    }
+}
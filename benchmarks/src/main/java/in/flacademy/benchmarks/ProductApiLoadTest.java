@@ -0,0 +1,100 @@
+package in.flacademy.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load test of the product API, once on Tomcat's platform worker pool and once
+// with spring.threads.virtual.enabled=true. Every client sends its next request as soon as the
+// previous one completes; throughput and latency percentiles are printed for both modes.
+//
+//   mvn package exec:exec@load-test -Dload.args="<clients> <seconds> <products>"
+
+public class ProductApiLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int products = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+
+        System.out.printf("%d clients, %d s per mode, %d products%n", clients, seconds, products);
+        System.out.println(run("platform threads", clients, seconds, products, "spring.threads.virtual.enabled=false"));
+        System.out.println(run("virtual threads", clients, seconds, products, "spring.threads.virtual.enabled=true"));
+    }
+
+    private static String run(String mode, int clients, int seconds, int products, String threading) throws Exception {
+        try (ConfigurableApplicationContext context = ProductCatalog.start(products, WebApplicationType.SERVLET,
+                "server.port=0", threading)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            runClients(http, port, clients, 5, products, new ArrayList<>()); // Warm up the JIT and the caches
+            List<long[]> latencies = new ArrayList<>();
+            AtomicLong errors = runClients(http, port, clients, seconds, products, latencies);
+
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(nanos -> nanos > 0).sorted().toArray();
+            return String.format("%-16s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d",
+                    mode, all.length / (double) seconds, percentile(all, 0.50), percentile(all, 0.99),
+                    all.length == 0 ? 0 : all[all.length - 1] / 1e6, errors.get());
+        }
+    }
+
+    private static AtomicLong runClients(HttpClient http, int port, int clients, int seconds, int products,
+                                         List<long[]> latencies) throws InterruptedException {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 16]; // Per-client ring of latencies, no shared state on the hot path
+                latencies.add(samples);
+                int client = c;
+                executor.submit(() -> {
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path(client, n, products))).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        samples[n++ & (samples.length - 1)] = System.nanoTime() - start;
+                    }
+                });
+            }
+        }
+        return errors;
+    }
+
+    // A mix of keyset pages and price ranges, both of which go to the database
+    private static String path(int client, int n, int products) {
+        int seed = client * 31 + n;
+        if (seed % 2 == 0) {
+            return "/products/page?size=20&after=" + (seed * 7919L % products);
+        }
+        int min = seed * 37 % 1990;
+        return "/products/price-range?startPrice=" + min + "&endPrice=" + (min + 2);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1e6;
+    }
+}
@@ -0,0 +1,73 @@
+package in.flacademy.benchmarks;
+
+import com.fla.db.DbApplication;
+import com.fla.db.service.ProductImportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Boots the db application against an in-memory H2 database and loads a synthetic catalog
+
+public final class ProductCatalog {
+
+    public static final int BRANDS = 20;
+    public static final double MAX_PRICE = 2000;
+
+    private ProductCatalog() {
+    }
+
+    public static ConfigurableApplicationContext start(int products) throws IOException {
+        return start(products, WebApplicationType.NONE);
+    }
+
+    // extraProperties override the defaults below, e.g. "server.port=0" or "spring.threads.virtual.enabled=true"
+    public static ConfigurableApplicationContext start(int products, WebApplicationType webApplicationType,
+                                                      String... extraProperties) throws IOException {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                // Spring Security is on this classpath for the jwt benchmarks; the db app runs without it
+                "spring.autoconfigure.exclude="
+                        + "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration,"
+                        + "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration",
+                "spring.datasource.url=jdbc:h2:mem:products-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.open-in-view=false",
+                "spring.cache.cache-names=products",
+                "spring.cache.caffeine.spec=maximumSize=10000,expireAfterWrite=10m",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true"));
+        properties.addAll(List.of(extraProperties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DbApplication.class)
+                .web(webApplicationType)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        context.getBean(ProductImportService.class).importCsv(new ByteArrayInputStream(csv(products)));
+        return context;
+    }
+
+    public static String brand(int n) {
+        return "Brand" + (n % BRANDS);
+    }
+
+    private static byte[] csv(int products) {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("title,price,brand,category\n");
+        for (int i = 0; i < products; i++) {
+            double price = 1 + Math.floor(random.nextDouble() * (MAX_PRICE - 1) * 100) / 100;
+            csv.append("Product ").append(i).append(" model ").append(random.nextInt(10_000)).append(',')
+                    .append(price).append(',')
+                    .append(brand(i)).append(',')
+                    .append("Category").append(i % 50).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
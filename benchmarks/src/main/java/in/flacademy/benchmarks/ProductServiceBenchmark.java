@@ -0,0 +1,78 @@
+package in.flacademy.benchmarks;
+
+import com.fla.db.model.Product;
+import com.fla.db.repository.ProductRepository;
+import com.fla.db.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ProductService title search, lookup by id and a create/update/delete round trip against embedded H2
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final String[] SEARCH_TERMS = {"model 12", "product 9", "model 777", "duct 4"};
+
+    @Param({"100000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = ProductCatalog.start(products);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> searchRepositoryLike() {
+        return productRepository.findByTitleContainingIgnoreCase(SEARCH_TERMS[call++ % SEARCH_TERMS.length]);
+    }
+
+    @Benchmark
+    public List<Product> searchService() {
+        return productService.getProductsByTitle(SEARCH_TERMS[call++ % SEARCH_TERMS.length]);
+    }
+
+    @Benchmark
+    public Product getProductById() {
+        call++;
+        return productService.getProductById((long) (call * 7919 % products) + 1);
+    }
+
+    @Benchmark
+    public boolean createUpdateDelete() {
+        Product created = productService.createProduct(new Product(null, "Benchmark phone", 499, "Brand1", "Category1"));
+        productService.updateProduct(created.getId(), new Product(null, "Benchmark phone v2", 449, "Brand1", "Category1"), null);
+        return productService.deleteProduct(created.getId());
+    }
+}
@@ -0,0 +1,35 @@
+package com.fla.db.config;
+
+import com.fla.db.model.Product;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Moves product_seq past the highest existing product id.
+// Product ids used to come from an identity column, so on an existing database the sequence
+// created by Hibernate would start at 1 and hand out ids that are already taken.
+// Runs once every singleton (including the EntityManagerFactory that creates the sequence) exists,
+// which is before the web server starts, so no request can be handed a colliding id.
+
+@Component
+public class ProductIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductIdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM product", Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, Product.ID_SEQUENCE.toUpperCase());
+
+        // The pooled optimizer uses (nextValue - allocationSize, nextValue] as its first block of ids
+        if (maxId > 0 && nextValue - Product.ID_ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + Product.ID_SEQUENCE + " RESTART WITH " + (maxId + Product.ID_ALLOCATION_SIZE));
+        }
+    }
+}
@@ -1,41 +1,126 @@
 package com.fla.db.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fla.db.model.BulkImportResult;
 import com.fla.db.model.Product;
+import com.fla.db.model.ProductFacets;
+import com.fla.db.model.ProductPage;
 import com.fla.db.model.ResponseMessage;
+import com.fla.db.service.CatalogVersion;
+import com.fla.db.service.ProductImportService;
 import com.fla.db.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController // Marks this class as a REST controller, handling HTTP requests/responses
 @RequestMapping("/products") // Base URL for all endpoints in this controller
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectWriter productWriter;
 
-    @Autowired // Injects the ProductService dependency
-    public ProductController(ProductService productService) {
+    // Cache-Control sent with each kind of read; clients revalidate with the ETag/Last-Modified validators
+    @Value("${products.http.cache-control.product:no-cache}")
+    private String productCacheControl;
+
+    @Value("${products.http.cache-control.list:no-cache}")
+    private String listCacheControl;
+
+    @Value("${products.http.cache-control.search:no-cache}")
+    private String searchCacheControl;
+
+    @Value("${products.http.cache-control.facets:no-cache}")
+    private String facetsCacheControl;
+
+    @Autowired // Injects the service and Jackson ObjectMapper dependencies
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             CatalogVersion catalogVersion, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.catalogVersion = catalogVersion;
+        // Keep the response stream open between rows when streaming
+        this.productWriter = objectMapper.writerFor(Product.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @GetMapping // Handles GET requests to /products
-    public List<Product> getProducts() {
+    public List<Product> getProducts(ServletWebRequest request) {
+        if (catalogNotModified(request, listCacheControl)) {
+            return null; // 304 Not Modified, the catalog has not changed
+        }
         return productService.getProducts(); // Returns a list of all products
     }
 
+    @GetMapping("/page") // Handles GET requests to /products/page?after=&size=
+    public ResponseEntity<?> getProductPage(@RequestParam(required = false) Long after,
+                                            @RequestParam(defaultValue = "50") int size,
+                                            ServletWebRequest request) {
+        if (catalogNotModified(request, listCacheControl)) {
+            return null;
+        }
+        ProductPage page = productService.getProductPage(after, size);
+        if (page == null) {
+            ResponseMessage responseMessage = new ResponseMessage();
+            responseMessage.setMessage("Page size must be between 1 and " + ProductService.MAX_PAGE_SIZE);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseMessage);
+        } else {
+            return ResponseEntity.ok(page);
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE) // Streams all products as NDJSON
+    public ResponseEntity<StreamingResponseBody> streamProducts(ServletWebRequest request) {
+        if (catalogNotModified(request, listCacheControl)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> productService.forEachProduct(product -> {
+            try {
+                productWriter.writeValue(outputStream, product);
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}") // Handles GET requests to /products/{id}
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        // The ETag is the row version, kept in memory so a revalidation runs no query;
+        // the catalog's last write time is a safe upper bound for Last-Modified
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, productCacheControl);
+        Long version = catalogVersion.productVersion(id);
+        if (version != null && request.checkNotModified(String.valueOf(version), catalogVersion.lastModified())) {
+            return null; // 304 Not Modified, the product is not loaded
+        }
         Product product = productService.getProductById(id); // Retrieves a product by its ID
         if (product == null) {
             ResponseMessage responseMessage = new ResponseMessage();
             responseMessage.setMessage("Product not found with id " + id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseMessage);
-        } else {
-            return ResponseEntity.ok(product);
         }
+        // Validators of the loaded row; Spring still answers 304 from them while the versions are loading
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(product.getVersion()))
+                .lastModified(catalogVersion.lastModified())
+                .body(product);
     }
 
     @PostMapping // Handles POST requests to /products
@@ -48,16 +133,79 @@ public class ProductController {
         }
     }
 
-    @PutMapping("/{id}") // Handles PUT requests to /products/{id}
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
-         Product updatedProduct = productService.updateProduct(id, productDetails);
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE) // Imports a streamed JSON array
+    public ResponseEntity<BulkImportResult> importProductsJson(InputStream body) throws IOException {
+        return bulkImportResponse(productImportService.importJson(body));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv") // Imports a CSV body with a header row
+    public ResponseEntity<BulkImportResult> importProductsCsv(InputStream body) throws IOException {
+        return bulkImportResponse(productImportService.importCsv(body));
+    }
+
+    private ResponseEntity<BulkImportResult> bulkImportResponse(BulkImportResult result) {
+        if (result.getError() != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+        } else {
+            return ResponseEntity.ok(result);
+        }
+    }
+
+    @PutMapping("/{id}") // Handles PUT requests to /products/{id}; If-Match makes the update conditional
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product productDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ResponseMessage("Invalid If-Match header"));
+        }
+        Product updatedProduct = productService.updateProduct(id, productDetails, expectedVersion);
+        if (updatedProduct != null) {
+            return ResponseEntity.ok().eTag(String.valueOf(updatedProduct.getVersion())).body(updatedProduct);
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @PatchMapping("/{id}") // Handles PATCH requests to /products/{id}; only the given fields are written
+    public ResponseEntity<?> patchProduct(@PathVariable Long id, @RequestBody Map<String, Object> changes,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ResponseMessage("Invalid If-Match header"));
+        }
+        String error = ProductService.validatePatch(changes);
+        if (error != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ResponseMessage(error));
+        }
+        Product updatedProduct = productService.patchProduct(id, changes, expectedVersion);
         if (updatedProduct != null) {
-            return ResponseEntity.ok(updatedProduct);
+            return ResponseEntity.ok().eTag(String.valueOf(updatedProduct.getVersion())).body(updatedProduct);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class) // A conditional update lost the race
+    public ResponseEntity<ResponseMessage> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ResponseMessage(e.getMessage()));
+    }
+
+    private static Long parseIfMatch(String ifMatch) {
+        // ETags are the quoted product version; no header or "*" means an unconditional update
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.parseLong(tag.replace("\"", ""));
+    }
+
      @DeleteMapping("/{id}") // Handles DELETE requests to /products/{id}
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         boolean deleted = productService.deleteProduct(id);
@@ -70,18 +218,54 @@ public class ProductController {
 
     /* Search and Filter Functions */
     @GetMapping("/search-by-category") // Handles GET requests to /products
-    public List<Product> getProductsByCategory(@RequestParam String searchTerm) {
+    public List<Product> getProductsByCategory(@RequestParam String searchTerm, ServletWebRequest request) {
+        if (catalogNotModified(request, searchCacheControl)) {
+            return null;
+        }
         return productService.getProductsByCategoryOrderByTitle(searchTerm); // Returns a list of all products
     }
 
     @GetMapping("/search")
-    public List<Product> getProductsByTitle(@RequestParam String searchTerm) {
+    public List<Product> getProductsByTitle(@RequestParam String searchTerm, ServletWebRequest request) {
+        if (catalogNotModified(request, searchCacheControl)) {
+            return null;
+        }
         return productService.getProductsByTitle(searchTerm); // Returns a list of all products
     }
 
+    @GetMapping("/facets") // Brand/category counts and price histogram, optionally narrowed by the search filters
+    public ResponseEntity<?> getFacets(@RequestParam(required = false) String searchTerm,
+                                       @RequestParam(required = false) Integer startPrice,
+                                       @RequestParam(required = false) Integer endPrice,
+                                       @RequestParam(required = false) String brand,
+                                       @RequestParam(required = false) String category,
+                                       ServletWebRequest request) {
+        if (catalogNotModified(request, facetsCacheControl)) {
+            return null;
+        }
+        ProductFacets facets = productService.getFacets(searchTerm, startPrice, endPrice, brand, category);
+        if (facets == null) {
+            ResponseMessage responseMessage = new ResponseMessage();
+            responseMessage.setMessage("Facets are still being built, try again shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(responseMessage);
+        } else {
+            return ResponseEntity.ok(facets);
+        }
+    }
+
     @GetMapping("/price-range")
-    public List<Product> getProductsByPrice(@RequestParam int startPrice, @RequestParam int endPrice) {
+    public List<Product> getProductsByPrice(@RequestParam int startPrice, @RequestParam int endPrice,
+                                            ServletWebRequest request) {
+        if (catalogNotModified(request, searchCacheControl)) {
+            return null;
+        }
         return productService.getProductsByPrice(startPrice, endPrice); // Returns a list of all products
     }
 
+    private boolean catalogNotModified(ServletWebRequest request, String cacheControl) {
+        // Listing validators come from the catalog change counter, checked before any query runs
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return request.checkNotModified(catalogVersion.etag(), catalogVersion.lastModified());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.fla.db.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Statistics for one committed chunk of a bulk product import, with the rows it rejected
+
+public class BulkImportChunk {
+
+    public static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private int chunk; // 1-based chunk number
+    private int imported;
+    private int rejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BulkImportRejection> rejections = new ArrayList<>(); // The first MAX_REPORTED_REJECTIONS of them
+
+    public BulkImportChunk() {
+    }
+
+    public BulkImportChunk(int chunk, int imported, int rejected, long elapsedMillis, List<BulkImportRejection> rejections) {
+        this.chunk = chunk;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+        this.rejections = rejections;
+    }
+
+    public int getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(int chunk) {
+        this.chunk = chunk;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<BulkImportRejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<BulkImportRejection> rejections) {
+        this.rejections = rejections;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fla.db.model;
+
+// One input row that the bulk import skipped, and why
+
+public class BulkImportRejection {
+
+    private long row; // 1-based position in the input: array element, or CSV line after the header
+    private String reason;
+
+    public BulkImportRejection() {
+    }
+
+    public BulkImportRejection(long row, String reason) {
+        this.row = row;
+        this.reason = reason;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fla.db.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary returned by POST /products/bulk
+
+public class BulkImportResult {
+
+    private int imported;
+    private int rejected;
+    private String error; // Set when the body could not be parsed; rows before that point stay imported
+    private List<BulkImportChunk> chunks = new ArrayList<>();
+
+    public void addChunk(BulkImportChunk chunk) {
+        chunks.add(chunk);
+        imported += chunk.getImported();
+        rejected += chunk.getRejected();
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<BulkImportChunk> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<BulkImportChunk> chunks) {
+        this.chunks = chunks;
+    }
+}
@@ -0,0 +1,43 @@
+package com.fla.db.model;
+
+// One bar of a price histogram: products priced in [from, to)
+
+public class PriceBucket {
+
+    private double from;
+    private double to;
+    private long count;
+
+    public PriceBucket() {
+    }
+
+    public PriceBucket(double from, double to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    public double getFrom() {
+        return from;
+    }
+
+    public void setFrom(double from) {
+        this.from = from;
+    }
+
+    public double getTo() {
+        return to;
+    }
+
+    public void setTo(double to) {
+        this.to = to;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
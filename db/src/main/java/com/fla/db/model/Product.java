@@ -1,17 +1,25 @@
 package com.fla.db.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 
 // POJO - Plain Old Java Object representing a Product entity
 
 @Entity // Marks this class as a JPA entity mapped to a database table
 public class Product {
 
+    public static final String ID_SEQUENCE = "product_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id // Specifies the primary key of the entity
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates the ID value using the database identity column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE) // Pooled sequence ids so inserts can be JDBC batched
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title; // Product title
@@ -19,6 +27,11 @@ public class Product {
     private String brand;
     private String category;
 
+    @Version // Optimistic locking; incremented on every update
+    @ColumnDefault("0") // Existing rows start at version 0 when the column is added
+    @Column(nullable = false)
+    private long version;
+
     public Product() {
         // Default constructor required by JPA
     }
@@ -70,4 +83,12 @@ public class Product {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
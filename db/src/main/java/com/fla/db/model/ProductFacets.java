@@ -0,0 +1,56 @@
+package com.fla.db.model;
+
+import java.util.List;
+import java.util.Map;
+
+// Product counts per brand and category plus a price histogram, returned by GET /products/facets
+
+public class ProductFacets {
+
+    private long total;
+    private Map<String, Long> brands;
+    private Map<String, Long> categories;
+    private List<PriceBucket> priceHistogram;
+
+    public ProductFacets() {
+    }
+
+    public ProductFacets(long total, Map<String, Long> brands, Map<String, Long> categories, List<PriceBucket> priceHistogram) {
+        this.total = total;
+        this.brands = brands;
+        this.categories = categories;
+        this.priceHistogram = priceHistogram;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(Map<String, Long> brands) {
+        this.brands = brands;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+
+    public List<PriceBucket> getPriceHistogram() {
+        return priceHistogram;
+    }
+
+    public void setPriceHistogram(List<PriceBucket> priceHistogram) {
+        this.priceHistogram = priceHistogram;
+    }
+}
@@ -0,0 +1,35 @@
+package com.fla.db.model;
+
+import java.util.List;
+
+// One page of a keyset (cursor) paginated product listing
+
+public class ProductPage {
+
+    private List<Product> items;
+    private Long nextCursor; // id to pass as "after" for the next page, null on the last page
+
+    public ProductPage() {
+    }
+
+    public ProductPage(List<Product> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Product> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Product> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fla.db.repository;
+
+import com.fla.db.model.Product;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Custom repository methods that Spring Data cannot derive, implemented in ProductRepositoryImpl
+
+public interface ProductRepositoryCustom {
+
+    // Writes only the given columns and bumps the version in a single UPDATE, returning the reloaded row.
+    // Empty if the product does not exist or, when expectedVersion is not null, its version differs.
+    Optional<Product> updateColumns(Long id, Long expectedVersion, Map<String, Object> columns);
+}
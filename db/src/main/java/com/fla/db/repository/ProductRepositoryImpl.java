@@ -0,0 +1,52 @@
+package com.fla.db.repository;
+
+import com.fla.db.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // Only these attributes may be written, so the generated JPQL never contains caller-supplied names
+    private static final Set<String> UPDATABLE_COLUMNS = Set.of("title", "price", "brand", "category");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<Product> updateColumns(Long id, Long expectedVersion, Map<String, Object> columns) {
+        // One versioned UPDATE; the version check in the WHERE clause makes a lost race update no row
+        StringBuilder jpql = new StringBuilder("UPDATE Product p SET ");
+        for (String column : columns.keySet()) {
+            if (!UPDATABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Column cannot be updated: " + column);
+            }
+            jpql.append("p.").append(column).append(" = :").append(column).append(", ");
+        }
+        jpql.append("p.version = p.version + 1 WHERE p.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" AND p.version = :version");
+        }
+
+        entityManager.flush();
+        Query query = entityManager.createQuery(jpql.toString());
+        columns.forEach(query::setParameter);
+        query.setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        if (query.executeUpdate() == 0) {
+            return Optional.empty();
+        }
+        // A managed copy of this product is now stale; getReference finds it without a query.
+        // Only it is detached, so the caller's other entities stay managed.
+        entityManager.detach(entityManager.getReference(Product.class, id));
+        return Optional.ofNullable(entityManager.find(Product.class, id));
+    }
+}
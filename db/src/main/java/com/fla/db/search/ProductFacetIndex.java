@@ -0,0 +1,201 @@
+package com.fla.db.search;
+
+import com.fla.db.model.PriceBucket;
+import com.fla.db.model.ProductFacets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Incrementally maintained brand, category and price-histogram counts for the whole catalog.
+// Unfiltered facet requests are answered straight from the counters. Filtered requests start
+// from the smallest candidate set on offer (the given ids, or the ids of the requested brand or
+// category) and aggregate only over those, so they never scan the whole catalog.
+// Product ids are stored as ints, so ids must fit in an int.
+
+@Component // Shared, thread-safe index; kept in sync by ProductService
+public class ProductFacetIndex {
+
+    private final double bucketWidth;
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Integer>> idsByBrand = new HashMap<>(); // Sizes are the brand counts
+    private final Map<String, Set<Integer>> idsByCategory = new HashMap<>();
+    private final TreeMap<Long, Long> priceBuckets = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ProductFacetIndex(@Value("${products.facets.price-bucket-width:100}") double bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public boolean isReady() {
+        return ready; // True once the startup build has finished
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public void add(long productId, String brand, String category, double price) {
+        int id = toIntId(productId);
+        Entry entry = new Entry(brand, category, price);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        int id = toIntId(productId);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Facets for the whole catalog, read from the maintained counters
+    public ProductFacets facets() {
+        lock.readLock().lock();
+        try {
+            return new ProductFacets(entries.size(), sizes(idsByBrand), sizes(idsByCategory), toHistogram(priceBuckets));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facets for the given products (null means every product) that also pass the brand, category and price filters.
+    // Without ids, a brand or a category, every product is a candidate; callers pass price-index ids for price-only filters.
+    public ProductFacets facets(int[] productIds, String brand, String category, Double minPrice, Double maxPrice) {
+        Map<String, Long> brands = new HashMap<>();
+        Map<String, Long> categories = new HashMap<>();
+        TreeMap<Long, Long> buckets = new TreeMap<>();
+        long total = 0;
+        lock.readLock().lock();
+        try {
+            for (Entry entry : candidates(productIds, brand, category)) {
+                if ((brand != null && !brand.equals(entry.brand))
+                        || (category != null && !category.equals(entry.category))
+                        || (minPrice != null && entry.price < minPrice)
+                        || (maxPrice != null && entry.price > maxPrice)) {
+                    continue;
+                }
+                total++;
+                increment(brands, entry.brand, 1);
+                increment(categories, entry.category, 1);
+                buckets.merge(bucketOf(entry.price), 1L, Long::sum);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ProductFacets(total, brands, categories, toHistogram(buckets));
+    }
+
+    // The entries of the smallest of the given ids, the brand's ids and the category's ids
+    private Collection<Entry> candidates(int[] productIds, String brand, String category) {
+        Collection<Integer> smallest = null;
+        if (brand != null) {
+            smallest = idsByBrand.getOrDefault(brand, Set.of());
+        }
+        if (category != null) {
+            Set<Integer> ids = idsByCategory.getOrDefault(category, Set.of());
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        if (productIds != null && (smallest == null || productIds.length < smallest.size())) {
+            smallest = Arrays.stream(productIds).boxed().toList();
+        }
+        if (smallest == null) {
+            return entries.values();
+        }
+        List<Entry> found = new ArrayList<>(smallest.size());
+        for (int id : smallest) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                found.add(entry);
+            }
+        }
+        return found;
+    }
+
+    private void index(int id, Entry entry) {
+        addId(idsByBrand, entry.brand, id);
+        addId(idsByCategory, entry.category, id);
+        priceBuckets.merge(bucketOf(entry.price), 1L, Long::sum);
+    }
+
+    private void unindex(int id, Entry entry) {
+        removeId(idsByBrand, entry.brand, id);
+        removeId(idsByCategory, entry.category, id);
+        long bucket = bucketOf(entry.price);
+        if (priceBuckets.merge(bucket, -1L, Long::sum) == 0) {
+            priceBuckets.remove(bucket);
+        }
+    }
+
+    private static void addId(Map<String, Set<Integer>> idsByKey, String key, int id) {
+        if (key != null) { // Products without a brand or category are not counted
+            idsByKey.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removeId(Map<String, Set<Integer>> idsByKey, String key, int id) {
+        Set<Integer> ids = key == null ? null : idsByKey.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            idsByKey.remove(key);
+        }
+    }
+
+    private static Map<String, Long> sizes(Map<String, Set<Integer>> idsByKey) {
+        Map<String, Long> counts = new HashMap<>();
+        idsByKey.forEach((key, ids) -> counts.put(key, (long) ids.size()));
+        return counts;
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long delta) {
+        if (key != null && counts.merge(key, delta, Long::sum) == 0) {
+            counts.remove(key);
+        }
+    }
+
+    private long bucketOf(double price) {
+        return (long) Math.floor(price / bucketWidth);
+    }
+
+    private List<PriceBucket> toHistogram(TreeMap<Long, Long> buckets) {
+        List<PriceBucket> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) -> histogram.add(new PriceBucket(bucket * bucketWidth, (bucket + 1) * bucketWidth, count)));
+        return histogram;
+    }
+
+    private static int toIntId(long productId) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product id out of range for the facet index: " + productId);
+        }
+        return (int) productId;
+    }
+
+    private record Entry(String brand, String category, double price) {
+    }
+}
@@ -0,0 +1,356 @@
+package com.fla.db.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Columnar price index: parallel double[] prices / long[] ids sorted by (price, id), kept once
+// for the whole catalog and once per brand. Range queries are two binary searches plus an array
+// copy, and return ids in price order without boxing.
+// New entries are appended to an unsorted tail and removed ones are only marked, so a price update
+// costs a binary search, not a shift of the sorted arrays. Queries scan the (short) tail alongside
+// the sorted range; the columns are compacted in place once the tail or the removed marks grow
+// past a fraction of the partition.
+
+@Component // Shared, thread-safe index; kept in sync by ProductService
+public class ProductPriceIndex {
+
+    private final Partition all = new Partition();
+    private final Map<String, Partition> byBrand = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>(); // id -> indexed price/brand, needed to remove old values
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready; // True once the startup build has finished
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public void add(long productId, String brand, double price) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(productId, new Entry(brand, price));
+            if (previous != null) {
+                removeFromPartitions(productId, previous);
+            }
+            all.append(price, productId);
+            if (brand != null) {
+                byBrand.computeIfAbsent(brand, key -> new Partition()).append(price, productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(productId);
+            if (previous != null) {
+                removeFromPartitions(productId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of all products priced in [minPrice, maxPrice], cheapest first
+    public long[] findIds(double minPrice, double maxPrice) {
+        return findIds(null, minPrice, maxPrice);
+    }
+
+    // Ids of the brand's products (every product if brand is null) priced in [minPrice, maxPrice], cheapest first
+    public long[] findIds(String brand, double minPrice, double maxPrice) {
+        lock.readLock().lock();
+        try {
+            Partition partition = brand == null ? all : byBrand.get(brand);
+            if (partition == null) {
+                return new long[0];
+            }
+            return partition.range(minPrice, maxPrice);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromPartitions(long productId, Entry entry) {
+        all.remove(entry.price, productId);
+        if (entry.brand != null) {
+            Partition partition = byBrand.get(entry.brand);
+            if (partition != null && partition.remove(entry.price, productId) && partition.size() == 0) {
+                byBrand.remove(entry.brand);
+            }
+        }
+    }
+
+    private record Entry(String brand, double price) {
+    }
+
+    // Sorted (price, id) columns, with removed positions marked, plus an unsorted tail of recent additions
+    static final class Partition {
+        private static final int MIN_COMPACT_THRESHOLD = 256;
+
+        private double[] prices = new double[16];
+        private long[] ids = new long[16];
+        private final BitSet removed = new BitSet(); // Positions in the sorted columns that no longer count
+        private int removedCount;
+        private int sorted;
+        private int size;
+
+        // Entries still indexed
+        int size() {
+            return size - removedCount;
+        }
+
+        void append(double price, long id) {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            prices[size] = price;
+            ids[size] = id;
+            size++;
+            compactIfDue();
+        }
+
+        boolean remove(double price, long id) {
+            int pos = indexOf(price, id); // The sorted columns hold each (price, id) at most once
+            if (pos >= 0 && !removed.get(pos)) {
+                removed.set(pos);
+                removedCount++;
+                compactIfDue();
+                return true;
+            }
+            for (int i = sorted; i < size; i++) {
+                if (prices[i] == price && ids[i] == id) {
+                    size--; // The tail is unordered, so its last entry can fill the gap
+                    prices[i] = prices[size];
+                    ids[i] = ids[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long[] range(double minPrice, double maxPrice) {
+            if (minPrice > maxPrice) {
+                return new long[0];
+            }
+            int from = lowerBound(minPrice);
+            int to = upperBound(maxPrice);
+
+            double[] pendingPrices = new double[size - sorted];
+            long[] pendingIds = new long[size - sorted];
+            int pending = 0;
+            for (int i = sorted; i < size; i++) {
+                if (prices[i] >= minPrice && prices[i] <= maxPrice) {
+                    pendingPrices[pending] = prices[i];
+                    pendingIds[pending++] = ids[i];
+                }
+            }
+            sort(pendingPrices, pendingIds, 0, pending - 1);
+
+            long[] result = new long[to - from - removedBetween(from, to) + pending];
+            int i = nextIndexed(from, to);
+            int j = 0;
+            int k = 0;
+            while (i < to && j < pending) {
+                if (compare(prices[i], ids[i], pendingPrices[j], pendingIds[j]) <= 0) {
+                    result[k++] = ids[i];
+                    i = nextIndexed(i + 1, to);
+                } else {
+                    result[k++] = pendingIds[j++];
+                }
+            }
+            while (i < to) {
+                result[k++] = ids[i];
+                i = nextIndexed(i + 1, to);
+            }
+            while (j < pending) {
+                result[k++] = pendingIds[j++];
+            }
+            return result;
+        }
+
+        private void compactIfDue() {
+            int threshold = Math.max(MIN_COMPACT_THRESHOLD, sorted >>> 4);
+            if (size - sorted > threshold || removedCount > threshold) {
+                compact();
+            }
+        }
+
+        // Drops removed entries and merges the sorted tail in from the back, reusing the same arrays
+        void compact() {
+            int pending = size - sorted;
+            double[] pendingPrices = Arrays.copyOfRange(prices, sorted, size);
+            long[] pendingIds = Arrays.copyOfRange(ids, sorted, size);
+            sort(pendingPrices, pendingIds, 0, pending - 1);
+
+            int kept = sorted;
+            if (removedCount > 0) {
+                kept = 0;
+                for (int i = 0; i < sorted; i++) {
+                    if (!removed.get(i)) {
+                        prices[kept] = prices[i];
+                        ids[kept++] = ids[i];
+                    }
+                }
+                removed.clear();
+                removedCount = 0;
+            }
+
+            int i = kept - 1;
+            int j = pending - 1;
+            int k = kept + pending - 1;
+            while (j >= 0) {
+                if (i >= 0 && compare(prices[i], ids[i], pendingPrices[j], pendingIds[j]) > 0) {
+                    prices[k] = prices[i];
+                    ids[k--] = ids[i--];
+                } else {
+                    prices[k] = pendingPrices[j];
+                    ids[k--] = pendingIds[j--];
+                }
+            }
+            sorted = kept + pending;
+            size = sorted;
+        }
+
+        // First position in [from, to) that has not been removed, or to
+        private int nextIndexed(int from, int to) {
+            if (removedCount == 0) {
+                return from;
+            }
+            int next = removed.nextClearBit(from);
+            return Math.min(next, to);
+        }
+
+        private int removedBetween(int from, int to) {
+            if (removedCount == 0) {
+                return 0;
+            }
+            int count = 0;
+            for (int i = removed.nextSetBit(from); i >= 0 && i < to; i = removed.nextSetBit(i + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        // First position whose price is >= minPrice
+        private int lowerBound(double minPrice) {
+            int low = 0;
+            int high = sorted;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < minPrice) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First position whose price is > maxPrice
+        private int upperBound(double maxPrice) {
+            int low = 0;
+            int high = sorted;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] <= maxPrice) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(double price, long id) {
+            int low = 0;
+            int high = sorted - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(prices[mid], ids[mid], price, id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private static int compare(double priceA, long idA, double priceB, long idB) {
+            int cmp = Double.compare(priceA, priceB);
+            return cmp != 0 ? cmp : Long.compare(idA, idB);
+        }
+
+        // In-place quicksort of the parallel arrays over [low, high]
+        private static void sort(double[] prices, long[] ids, int low, int high) {
+            while (low < high) {
+                if (high - low < 16) {
+                    insertionSort(prices, ids, low, high);
+                    return;
+                }
+                int mid = (low + high) >>> 1;
+                double pivotPrice = prices[mid];
+                long pivotId = ids[mid];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (compare(prices[i], ids[i], pivotPrice, pivotId) < 0) {
+                        i++;
+                    }
+                    while (compare(prices[j], ids[j], pivotPrice, pivotId) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(prices, ids, i++, j--);
+                    }
+                }
+                // Recurse into the smaller half to bound the stack depth
+                if (j - low < high - i) {
+                    sort(prices, ids, low, j);
+                    low = i;
+                } else {
+                    sort(prices, ids, i, high);
+                    high = j;
+                }
+            }
+        }
+
+        private static void insertionSort(double[] prices, long[] ids, int low, int high) {
+            for (int i = low + 1; i <= high; i++) {
+                double price = prices[i];
+                long id = ids[i];
+                int j = i - 1;
+                while (j >= low && compare(prices[j], ids[j], price, id) > 0) {
+                    prices[j + 1] = prices[j];
+                    ids[j + 1] = ids[j];
+                    j--;
+                }
+                prices[j + 1] = price;
+                ids[j + 1] = id;
+            }
+        }
+
+        private static void swap(double[] prices, long[] ids, int a, int b) {
+            double price = prices[a];
+            prices[a] = prices[b];
+            prices[b] = price;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.fla.db.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory n-gram inverted index over product titles.
+// Every lower-cased title is split into its 2- and 3-grams and each gram keeps a sorted
+// posting list of product ids. Single letters are not indexed: their posting lists would hold
+// nearly the whole catalog and make every write shift huge arrays, so one-character terms are
+// left to the LIKE query (facets answer them by scanning the titles held here).
+// A "contains" search intersects the posting lists of the term's grams (smallest first) and
+// only compares strings for the few candidates that survive.
+// Product ids are stored as primitive ints, so ids must fit in an int.
+
+@Component // Shared, thread-safe index; kept in sync by ProductService
+public class ProductTitleIndex {
+
+    private static final int MIN_GRAM_LENGTH = 2;
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Integer, String> titles = new HashMap<>(); // id -> lower-cased title, used to verify candidates
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready; // True once the startup build has finished
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long productId, String title) {
+        int id = toIntId(productId);
+        String normalized = normalize(title);
+        lock.writeLock().lock();
+        try {
+            String previous = titles.put(id, normalized);
+            if (previous != null) {
+                removeGrams(id, previous);
+            }
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        int id = toIntId(productId);
+        lock.writeLock().lock();
+        try {
+            String previous = titles.remove(id);
+            if (previous != null) {
+                removeGrams(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            titles.clear();
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // True if search(term) is answered from posting lists rather than a scan of every title
+    public static boolean isIndexed(String term) {
+        return normalize(term).length() >= MIN_GRAM_LENGTH;
+    }
+
+    // Returns the ids of all products whose title contains the term (case-insensitive), in ascending order
+    public int[] search(String term) {
+        String normalized = normalize(term);
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < MIN_GRAM_LENGTH) {
+                return titles.entrySet().stream()
+                        .filter(entry -> entry.getValue().contains(normalized))
+                        .mapToInt(Map.Entry::getKey).sorted().toArray();
+            }
+            if (normalized.length() <= GRAM_LENGTH) {
+                // The term is itself a gram, so its posting list is the exact answer
+                PostingList list = postings.get(gramKey(normalized, 0, normalized.length()));
+                return list == null ? new int[0] : list.toArray();
+            }
+
+            PostingList[] lists = new PostingList[normalized.length() - GRAM_LENGTH + 1];
+            for (int i = 0; i < lists.length; i++) {
+                PostingList list = postings.get(gramKey(normalized, i, GRAM_LENGTH));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            int[] candidates = lists[0].toArray();
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+
+            // Sharing every trigram does not guarantee a contiguous match, so verify the survivors
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (titles.get(candidates[i]).contains(normalized)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeGrams(int id, String title) {
+        for (long gram : grams(title)) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> grams(String title) {
+        Set<Long> grams = new HashSet<>();
+        for (int length = MIN_GRAM_LENGTH; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= title.length(); i++) {
+                grams.add(gramKey(title, i, length));
+            }
+        }
+        return grams;
+    }
+
+    // Packs up to three UTF-16 chars plus the gram length into one long
+    private static long gramKey(String s, int start, int length) {
+        long key = length;
+        for (int i = 0; i < GRAM_LENGTH; i++) {
+            key <<= 16;
+            if (i < length) {
+                key |= s.charAt(start + i);
+            }
+        }
+        return key;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static int toIntId(long productId) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product id out of range for the title index: " + productId);
+        }
+        return (int) productId;
+    }
+
+    // Sorted, growable array of primitive ids
+    static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) { // Fast path: ids are usually appended in order
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        // Keeps only the first `count` candidates that also appear in this list; returns the new count
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int pos = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (pos >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+            return kept;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
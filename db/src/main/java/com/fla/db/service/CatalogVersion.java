@@ -0,0 +1,55 @@
+package com.fla.db.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Catalog-wide change counter used for HTTP validators on product listings.
+// ProductService bumps it after every committed write, so any cached listing whose ETag still
+// matches is current. The process start time is part of the ETag so that a restart, which
+// resets the counter, never makes an old ETag match again.
+// It also keeps each product's row version (its ETag), so a single product can be revalidated
+// without loading it. The versions are complete once ProductService has built its indexes.
+
+@Component
+public class CatalogVersion {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long lastModified = startedAt;
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+    private volatile boolean productVersionsLoaded;
+
+    public void changed() {
+        lastModified = System.currentTimeMillis();
+        changes.incrementAndGet();
+    }
+
+    public String etag() {
+        return startedAt + "-" + changes.get();
+    }
+
+    public long lastModified() {
+        return lastModified; // Epoch millis of the last write (or of startup)
+    }
+
+    public void productChanged(long id, long version) {
+        // Writes can finish out of order; the newest row version wins, not the last caller
+        productVersions.merge(id, version, Math::max);
+    }
+
+    public void productRemoved(long id) {
+        productVersions.remove(id);
+    }
+
+    public void markProductVersionsLoaded() {
+        this.productVersionsLoaded = true;
+    }
+
+    public Long productVersion(long id) {
+        // Null if the product is unknown or the versions are still being loaded
+        return productVersionsLoaded ? productVersions.get(id) : null;
+    }
+}
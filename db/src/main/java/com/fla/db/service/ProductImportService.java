@@ -0,0 +1,231 @@
+package com.fla.db.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fla.db.model.BulkImportChunk;
+import com.fla.db.model.BulkImportRejection;
+import com.fla.db.model.BulkImportResult;
+import com.fla.db.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Service // Streams large product feeds into the database in chunked, JDBC-batched transactions
+public class ProductImportService {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final Cache productCache;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductImportService(ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                ProductService productService,
+                                CatalogVersion catalogVersion,
+                                CacheManager cacheManager,
+                                @Value("${products.bulk.chunk-size:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productService = productService;
+        this.catalogVersion = catalogVersion;
+        this.productCache = cacheManager.getCache("products");
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportResult importJson(InputStream body) throws IOException {
+        // Reads a JSON array one element at a time; only a syntax error stops the import
+        ChunkWriter writer = new ChunkWriter();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                writer.result.setError("Expected a JSON array of products");
+                return writer.result;
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                Product product;
+                try {
+                    product = objectMapper.treeToValue(node, Product.class);
+                } catch (IOException | IllegalArgumentException e) {
+                    writer.reject("Invalid product: " + conversionMessage(e)); // Wrong field types only reject this row
+                    continue;
+                }
+                writer.accept(product);
+            }
+        } catch (JsonProcessingException e) {
+            writer.finish();
+            writer.result.setError("Malformed JSON: " + e.getOriginalMessage());
+            return writer.result;
+        }
+        writer.finish();
+        return writer.result;
+    }
+
+    public BulkImportResult importCsv(InputStream body) throws IOException {
+        // Expects a header row naming the title, price, brand and category columns in any order
+        ChunkWriter writer = new ChunkWriter();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return writer.result;
+        }
+        List<String> columns = parseCsvLine(header).stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList();
+        int titleColumn = columns.indexOf("title");
+        int priceColumn = columns.indexOf("price");
+        int brandColumn = columns.indexOf("brand");
+        int categoryColumn = columns.indexOf("category");
+        if (titleColumn < 0 || priceColumn < 0) {
+            writer.result.setError("CSV header must contain title and price columns");
+            return writer.result;
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                writer.skip();
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != columns.size()) {
+                writer.reject("Expected " + columns.size() + " fields but found " + fields.size());
+                continue;
+            }
+            try {
+                Product product = new Product();
+                product.setTitle(fields.get(titleColumn));
+                product.setPrice(Double.parseDouble(fields.get(priceColumn).trim()));
+                product.setBrand(brandColumn < 0 ? null : fields.get(brandColumn));
+                product.setCategory(categoryColumn < 0 ? null : fields.get(categoryColumn));
+                writer.accept(product);
+            } catch (NumberFormatException e) {
+                writer.reject("price is not a number: " + fields.get(priceColumn).trim());
+            }
+        }
+        writer.finish();
+        return writer.result;
+    }
+
+    private static String conversionMessage(Exception e) {
+        return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+    }
+
+    // Splits one CSV line, honouring double-quoted fields and "" escapes
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Collects valid rows and commits them chunkSize at a time
+    private class ChunkWriter {
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<Product> pending = new ArrayList<>(chunkSize);
+        private List<BulkImportRejection> rejections = new ArrayList<>();
+        private int rejected;
+        private long row;
+        private long chunkStart = System.nanoTime();
+
+        void accept(Product product) {
+            String error = ProductService.validationError(product);
+            if (error != null) {
+                reject(error);
+                return;
+            }
+            row++;
+            product.setId(null); // Ids always come from the sequence
+            pending.add(product);
+            flushIfFull();
+        }
+
+        void reject(String reason) {
+            row++;
+            rejected++;
+            if (rejections.size() < BulkImportChunk.MAX_REPORTED_REJECTIONS) {
+                rejections.add(new BulkImportRejection(row, reason));
+            }
+            flushIfFull();
+        }
+
+        void skip() {
+            row++; // Keeps row numbers in line with the input
+        }
+
+        private void flushIfFull() {
+            if (pending.size() + rejected >= chunkSize) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (!pending.isEmpty() || rejected > 0) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Product product : pending) {
+                    entityManager.persist(product);
+                }
+                entityManager.flush(); // Sent as JDBC batches of hibernate.jdbc.batch_size rows
+                entityManager.clear();
+            });
+            for (Product product : pending) {
+                productService.indexProduct(product);
+                productCache.evict(product.getId()); // Drops any cached "not found" for the new id
+            }
+            if (!pending.isEmpty()) {
+                catalogVersion.changed();
+            }
+            long elapsedMillis = (System.nanoTime() - chunkStart) / 1_000_000;
+            result.addChunk(new BulkImportChunk(result.getChunks().size() + 1, pending.size(), rejected, elapsedMillis, rejections));
+            pending.clear();
+            rejections = new ArrayList<>();
+            rejected = 0;
+            chunkStart = System.nanoTime();
+        }
+    }
+}
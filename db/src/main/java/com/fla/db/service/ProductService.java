@@ -1,21 +1,89 @@
 package com.fla.db.service;
 
 import com.fla.db.model.Product;
+import com.fla.db.model.ProductFacets;
+import com.fla.db.model.ProductPage;
 import com.fla.db.repository.ProductRepository;
+import com.fla.db.search.ProductFacetIndex;
+import com.fla.db.search.ProductPriceIndex;
+import com.fla.db.search.ProductTitleIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service // Marks this class as a Spring service component
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private ProductRepository productRepository;
+    private final ProductTitleIndex titleIndex;
+    private final ProductFacetIndex facetIndex;
+    private final ProductPriceIndex priceIndex;
+    private final CatalogVersion catalogVersion;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    @Autowired // Injects the ProductRepository dependency
-    public ProductService(ProductRepository repository) {
+    @Autowired // Injects the ProductRepository and in-memory index dependencies
+    public ProductService(ProductRepository repository, ProductTitleIndex titleIndex, ProductFacetIndex facetIndex,
+                          ProductPriceIndex priceIndex, CatalogVersion catalogVersion) {
         this.productRepository = repository;
+        this.titleIndex = titleIndex;
+        this.facetIndex = facetIndex;
+        this.priceIndex = priceIndex;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndexes() {
+        // Loads every product into the in-memory indexes once the application has started
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(product -> {
+                indexProduct(product);
+                entityManager.detach(product);
+            });
+        }
+        titleIndex.markReady();
+        facetIndex.markReady();
+        priceIndex.markReady();
+        catalogVersion.markProductVersionsLoaded();
+    }
+
+    public void indexProduct(Product product) {
+        // Keeps the in-memory indexes in sync after a product is saved
+        titleIndex.add(product.getId(), product.getTitle());
+        facetIndex.add(product.getId(), product.getBrand(), product.getCategory(), product.getPrice());
+        priceIndex.add(product.getId(), product.getBrand(), product.getPrice());
+        catalogVersion.productChanged(product.getId(), product.getVersion());
+    }
+
+    public void unindexProduct(Long id) {
+        titleIndex.remove(id);
+        facetIndex.remove(id);
+        priceIndex.remove(id);
+        catalogVersion.productRemoved(id);
     }
 
     public List<Product> getProducts() {
@@ -23,6 +91,48 @@ public class ProductService {
         return productRepository.findAll();
     }
 
+    public ProductPage getProductPage(Long after, int size) {
+        // Returns null if the requested page size is out of range
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            return null;
+        }
+        long afterId = after == null ? 0L : after;
+        List<Product> items = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+        Long nextCursor = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return new ProductPage(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<Product> action) {
+        // Hands each product to the caller as soon as it is read, detaching it so the persistence context stays empty
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(product -> {
+                action.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    public static boolean isValid(Product product) {
+        // Validation rules shared by createProduct and the bulk import
+        return validationError(product) == null;
+    }
+
+    public static String validationError(Product product) {
+        // Describes why a product would be rejected, or returns null if it is valid
+        if (product == null) {
+            return "Missing product";
+        }
+        if (product.getTitle() == null) {
+            return "title is required";
+        }
+        if (!(product.getPrice() > 0)) {
+            return "price must be greater than 0";
+        }
+        return null;
+    }
+
+    @Cacheable(cacheNames = "products", key = "#id") // A null (not found) result is cached as well
     public Product getProductById(Long id) {
         // Retrieves a product by its ID, or returns a dummy product if not found
         // Product dummyProduct = new Product();
@@ -46,42 +156,133 @@ public class ProductService {
     }
 
     public List<Product> getProductsByTitle(String searchTerm) {
-        return productRepository.findByTitleContainingIgnoreCase(searchTerm);
+        // Falls back to the LIKE query until the title index has been built, and for terms too short to be indexed
+        if (!titleIndex.isReady() || !ProductTitleIndex.isIndexed(searchTerm)) {
+            return productRepository.findByTitleContainingIgnoreCase(searchTerm);
+        }
+        int[] ids = titleIndex.search(searchTerm);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        return productRepository.findAllById(Arrays.stream(ids).mapToObj(id -> (long) id).toList());
     }
 
+    @CachePut(cacheNames = "products", key = "#result.id", unless = "#result == null") // Replaces any cached "not found" for the new id
     public Product createProduct(Product product) {
-        if (product == null || product.getTitle() == null || product.getPrice() <= 0) {
+        if (!isValid(product)) {
             return null; // Return null if the product is invalid
         } else {
-            return productRepository.save(product);
+            Product savedProduct = productRepository.save(product);
+            indexProduct(savedProduct);
+            catalogVersion.changed();
+            return savedProduct;
         }
     }
 
-    public Product updateProduct(Long id, Product productDetails) {
-        Optional<Product> optionalProduct = productRepository.findById(id);
-        if (optionalProduct.isEmpty()) {
-            return null;
-        } else {
-            Product product = optionalProduct.get();
-            product.setTitle(productDetails.getTitle());
-            product.setPrice(productDetails.getPrice());
-            product.setBrand(productDetails.getBrand());
-            product.setCategory(productDetails.getCategory());
-            return productRepository.save(product);
+    @CachePut(cacheNames = "products", key = "#id")
+    public Product updateProduct(Long id, Product productDetails, Long expectedVersion) {
+        // Replaces every column in one UPDATE; expectedVersion (from If-Match) makes it conditional
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("title", productDetails.getTitle());
+        columns.put("price", productDetails.getPrice());
+        columns.put("brand", productDetails.getBrand());
+        columns.put("category", productDetails.getCategory());
+        return applyUpdate(id, expectedVersion, columns);
+    }
+
+    public static String validatePatch(Map<String, Object> changes) {
+        // Returns a message describing the first problem with a PATCH body, or null if it is valid
+        if (changes == null || changes.isEmpty()) {
+            return "No fields to update";
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Object value = change.getValue();
+            switch (change.getKey()) {
+                case "title" -> {
+                    if (!(value instanceof String)) {
+                        return "title must be a string";
+                    }
+                }
+                case "price" -> {
+                    if (!(value instanceof Number number) || number.doubleValue() <= 0) {
+                        return "price must be a number greater than 0";
+                    }
+                }
+                case "brand", "category" -> {
+                    if (value != null && !(value instanceof String)) {
+                        return change.getKey() + " must be a string";
+                    }
+                }
+                default -> {
+                    return "Unknown or read-only field: " + change.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    @CachePut(cacheNames = "products", key = "#id")
+    public Product patchProduct(Long id, Map<String, Object> changes, Long expectedVersion) {
+        // Writes only the fields present in the (validated) PATCH body
+        Map<String, Object> columns = new LinkedHashMap<>(changes);
+        if (columns.get("price") instanceof Number price) {
+            columns.put("price", price.doubleValue());
+        }
+        return applyUpdate(id, expectedVersion, columns);
+    }
+
+    private Product applyUpdate(Long id, Long expectedVersion, Map<String, Object> columns) {
+        Optional<Product> updatedProduct = productRepository.updateColumns(id, expectedVersion, columns);
+        if (updatedProduct.isPresent()) {
+            indexProduct(updatedProduct.get());
+            catalogVersion.changed();
+            return updatedProduct.get();
+        }
+        // Nothing was updated: tell a version conflict apart from a missing product
+        if (expectedVersion != null && productRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Product " + id + " was modified by another request");
         }
+        return null;
     }
 
+    @CacheEvict(cacheNames = "products", key = "#id")
     public boolean deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             return false;
         } else {
             productRepository.deleteById(id);
+            unindexProduct(id);
+            catalogVersion.changed();
             return true;
         }
     }
 
+    public ProductFacets getFacets(String searchTerm, Integer startPrice, Integer endPrice, String brand, String category) {
+        // Returns null until the in-memory indexes have been built
+        if (!facetIndex.isReady() || !titleIndex.isReady()) {
+            return null;
+        }
+        if (searchTerm == null && startPrice == null && endPrice == null && brand == null && category == null) {
+            return facetIndex.facets();
+        }
+        Double minPrice = startPrice == null ? null : startPrice.doubleValue();
+        Double maxPrice = endPrice == null ? null : endPrice.doubleValue();
+        int[] ids = searchTerm == null || searchTerm.isEmpty() ? null : titleIndex.search(searchTerm);
+        if (ids == null && brand == null && category == null && priceIndex.isReady()) {
+            // Price-only filter: the price index finds the candidates without a catalog scan
+            long[] priced = priceIndex.findIds(minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                    maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice);
+            ids = Arrays.stream(priced).mapToInt(Math::toIntExact).toArray();
+        }
+        return facetIndex.facets(ids, brand, category, minPrice, maxPrice);
+    }
+
     public List<Product> getProductsByPrice(int startPrice, int endPrice) {
-        return productRepository.findByPriceBetween(startPrice, endPrice);
+        // Answered from the price index once it is built; results come back cheapest first
+        if (!priceIndex.isReady()) {
+            return productRepository.findByPriceBetween(startPrice, endPrice);
+        }
+        return findAllInOrder(priceIndex.findIds(startPrice, endPrice));
     }
 
     public List<Product> getProductsByCategoryOrderByTitle(String category) {
@@ -89,6 +290,27 @@ public class ProductService {
     }
 
     public List<Product> getProductsByBrandAndPriceRange(String brand, int minPrice, int maxPrice) {
-        return productRepository.getProductsByBrandPrice(brand, minPrice, maxPrice);
+        if (!priceIndex.isReady()) {
+            return productRepository.getProductsByBrandPrice(brand, minPrice, maxPrice);
+        }
+        return findAllInOrder(priceIndex.findIds(brand, minPrice, maxPrice));
+    }
+
+    private List<Product> findAllInOrder(long[] ids) {
+        // Loads the products by primary key and returns them in the order of the given ids
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, Product> productsById = productRepository.findAllById(Arrays.stream(ids).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
     }
 }
\ No newline at end of file
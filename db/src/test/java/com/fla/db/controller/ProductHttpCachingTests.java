@@ -0,0 +1,126 @@
+package com.fla.db.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fla.db.model.Product;
+import com.fla.db.service.CatalogVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ProductHttpCachingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	private Long id;
+
+	@BeforeEach
+	void create() throws Exception {
+		MvcResult created = mockMvc.perform(post("/products")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Lamp\",\"price\":40,\"brand\":\"Lumo\",\"category\":\"Home\"}"))
+				.andExpect(status().isCreated())
+				.andReturn();
+		id = objectMapper.readValue(created.getResponse().getContentAsString(), Product.class).getId();
+	}
+
+	@Test
+	void sendsValidatorsAndAnswers304WithoutLoadingTheProduct() throws Exception {
+		MvcResult first = mockMvc.perform(get("/products/" + id))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn();
+		String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+		cacheManager.getCache("products").clear(); // Cold cache: only a query could find the product now
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+				.andExpect(status().isNotModified());
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void aWriteChangesTheETag() throws Exception {
+		mockMvc.perform(patch("/products/" + id)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"price\":35}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void aWriteRecordedOutOfOrderDoesNotRollTheETagBack() throws Exception {
+		mockMvc.perform(patch("/products/" + id)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"price\":35}"))
+				.andExpect(status().isOk());
+		catalogVersion.productChanged(id, 0); // The first write's indexing finishing after the second's
+
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+		mockMvc.perform(get("/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void listingsRevalidateAgainstTheCatalogVersion() throws Exception {
+		String etag = mockMvc.perform(get("/products"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(post("/products")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Desk\",\"price\":120}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.fla.db.controller;
+
+import com.fla.db.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"products.bulk.chunk-size=3"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ProductImportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@BeforeEach
+	void clean() {
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void importsJsonInChunksAndReportsRejectedRows() throws Exception {
+		String body = """
+				[
+				  {"title": "A", "price": 10},
+				  {"title": "B", "price": -1},
+				  {"title": "C", "price": 30, "brand": "Acme"},
+				  {"title": "D", "price": 40},
+				  {"title": "E", "price": "not a number"},
+				  {"title": "F", "price": 60},
+				  {"id": 999, "title": "G", "price": 70}
+				]""";
+		mockMvc.perform(post("/products/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(5))
+				.andExpect(jsonPath("$.rejected").value(2))
+				.andExpect(jsonPath("$.chunks.length()").value(3))
+				.andExpect(jsonPath("$.chunks[0].imported").value(2))
+				.andExpect(jsonPath("$.chunks[0].rejections[0].row").value(2))
+				.andExpect(jsonPath("$.chunks[0].rejections[0].reason").value("price must be greater than 0"))
+				.andExpect(jsonPath("$.chunks[1].imported").value(2))
+				.andExpect(jsonPath("$.chunks[1].rejections[0].row").value(5))
+				.andExpect(jsonPath("$.chunks[2].imported").value(1))
+				.andExpect(jsonPath("$.chunks[2].rejected").value(0));
+
+		assertThat(productRepository.count()).isEqualTo(5);
+		assertThat(productRepository.existsById(999L)).isFalse(); // Ids always come from the sequence
+	}
+
+	@Test
+	void importsCsvAndRejectsBadLines() throws Exception {
+		String body = """
+				price,title,category
+				10,"Lamp, large",Home
+				abc,Broken,Home
+
+				20,Short
+				30,Chair,Home
+				""";
+		mockMvc.perform(post("/products/bulk").contentType("text/csv").content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(2))
+				.andExpect(jsonPath("$.rejected").value(2))
+				.andExpect(jsonPath("$.chunks[0].rejections[0].row").value(2))
+				.andExpect(jsonPath("$.chunks[0].rejections[0].reason").value("price is not a number: abc"))
+				.andExpect(jsonPath("$.chunks[0].rejections[1].row").value(4))
+				.andExpect(jsonPath("$.chunks[0].rejections[1].reason").value("Expected 3 fields but found 2"));
+
+		assertThat(productRepository.findAll()).extracting("title").containsExactlyInAnyOrder("Lamp, large", "Chair");
+	}
+
+	@Test
+	void keepsCommittedChunksWhenTheBodyIsMalformed() throws Exception {
+		String body = "[{\"title\": \"A\", \"price\": 1}, {\"title\": \"B\", \"price\": 2}, {\"title\": \"C\", \"price\": 3}, {\"title\": ";
+		mockMvc.perform(post("/products/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.imported").value(3))
+				.andExpect(jsonPath("$.error").exists());
+
+		assertThat(productRepository.count()).isEqualTo(3);
+	}
+
+}
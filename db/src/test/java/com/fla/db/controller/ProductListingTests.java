@@ -0,0 +1,112 @@
+package com.fla.db.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fla.db.model.Product;
+import com.fla.db.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ProductListingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private final List<Long> ids = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		productRepository.deleteAll();
+		ids.clear();
+		for (int i = 0; i < 10; i++) {
+			ids.add(productRepository.save(new Product(null, "Product " + i, 10 + i, "Brand", "Category")).getId());
+		}
+	}
+
+	@Test
+	void cursorsWalkEveryProductOnceInIdOrder() throws Exception {
+		List<Long> seen = new ArrayList<>();
+		Long cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = read("/products/page?size=4" + (cursor == null ? "" : "&after=" + cursor));
+			page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asLong();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(seen).containsExactlyElementsOf(ids);
+		assertThat(pages).isEqualTo(3);
+	}
+
+	@Test
+	void aDeleteBetweenPagesNeitherSkipsNorRepeatsRows() throws Exception {
+		JsonNode first = read("/products/page?size=4");
+		long cursor = first.get("nextCursor").asLong();
+		productRepository.deleteById(ids.get(1)); // Already returned: offsets would now shift by one
+
+		JsonNode second = read("/products/page?size=4&after=" + cursor);
+		List<Long> secondIds = new ArrayList<>();
+		second.get("items").forEach(item -> secondIds.add(item.get("id").asLong()));
+		assertThat(secondIds).containsExactlyElementsOf(ids.subList(4, 8));
+	}
+
+	@Test
+	void rejectsPageSizesOutOfRange() throws Exception {
+		mockMvc.perform(get("/products/page?size=0")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/products/page?size=1001")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamsEveryProductAsOneJsonObjectPerLine() throws Exception {
+		MvcResult started = mockMvc.perform(get("/products/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(ids.size());
+		List<Long> streamed = new ArrayList<>();
+		for (String line : lines) {
+			streamed.add(objectMapper.readTree(line).get("id").asLong());
+		}
+		assertThat(streamed).containsExactlyElementsOf(ids);
+	}
+
+	private JsonNode read(String url) throws Exception {
+		String body = mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+}
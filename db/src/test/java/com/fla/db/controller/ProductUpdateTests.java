@@ -0,0 +1,123 @@
+package com.fla.db.controller;
+
+import com.fla.db.model.Product;
+import com.fla.db.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ProductUpdateTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Product phone;
+
+	@BeforeEach
+	void seed() {
+		productRepository.deleteAll();
+		phone = productRepository.save(new Product(null, "Phone", 500, "Acme", "Mobiles"));
+	}
+
+	@Test
+	void putWithTheCurrentVersionSucceedsAndAStaleOneConflicts() throws Exception {
+		mockMvc.perform(put("/products/" + phone.getId())
+						.header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Phone 2\",\"price\":600,\"brand\":\"Acme\",\"category\":\"Mobiles\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.title").value("Phone 2"));
+
+		mockMvc.perform(put("/products/" + phone.getId())
+						.header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Lost update\",\"price\":700}"))
+				.andExpect(status().isConflict());
+
+		assertThat(productRepository.findById(phone.getId())).get()
+				.extracting(Product::getTitle, Product::getVersion)
+				.containsExactly("Phone 2", 1L);
+	}
+
+	@Test
+	void patchWritesOnlyTheGivenFieldsAndChecksTheVersion() throws Exception {
+		mockMvc.perform(patch("/products/" + phone.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"price\":450}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.price").value(450.0))
+				.andExpect(jsonPath("$.title").value("Phone"))
+				.andExpect(jsonPath("$.brand").value("Acme"))
+				.andExpect(jsonPath("$.version").value(1));
+
+		mockMvc.perform(patch("/products/" + phone.getId())
+						.header(HttpHeaders.IF_MATCH, "W/\"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"brand\":\"Other\"}"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(patch("/products/" + phone.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"version\":9}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/products/" + phone.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"price\":-1}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/products/999999")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"price\":10}"))
+				.andExpect(status().isNotFound());
+
+		assertThat(productRepository.findById(phone.getId())).get()
+				.extracting(Product::getBrand, Product::getVersion)
+				.containsExactly("Acme", 1L);
+	}
+
+	@Test
+	void updateKeepsTheRestOfThePersistenceContextManaged() {
+		Product other = productRepository.save(new Product(null, "Tablet", 300, "Acme", "Tablets"));
+		transactionTemplate.executeWithoutResult(status -> {
+			Product managedOther = entityManager.find(Product.class, other.getId());
+			Product stalePhone = entityManager.find(Product.class, phone.getId());
+
+			Product updated = productRepository.updateColumns(phone.getId(), 0L, Map.of("price", 550.0)).orElseThrow();
+
+			assertThat(updated.getPrice()).isEqualTo(550.0);
+			assertThat(updated.getVersion()).isEqualTo(1L);
+			assertThat(entityManager.contains(managedOther)).isTrue();
+			assertThat(entityManager.contains(stalePhone)).isFalse();
+			assertThat(productRepository.updateColumns(phone.getId(), 0L, Map.of("price", 1.0))).isEmpty();
+		});
+	}
+
+}
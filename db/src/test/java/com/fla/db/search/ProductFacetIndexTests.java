@@ -0,0 +1,59 @@
+package com.fla.db.search;
+
+import com.fla.db.model.ProductFacets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductFacetIndexTests {
+
+	@Test
+	void countersFollowUpdatesAndDeletes() {
+		ProductFacetIndex index = new ProductFacetIndex(100);
+		index.add(1, "Apple", "mobile", 950);
+		index.add(2, "Samsung", "mobile", 120);
+		index.add(3, "Apple", "laptop", 1999);
+
+		index.add(2, "Apple", "tablet", 150);
+		index.remove(3);
+
+		ProductFacets facets = index.facets();
+		assertThat(facets.getTotal()).isEqualTo(2);
+		assertThat(facets.getBrands()).containsOnly(Map.entry("Apple", 2L));
+		assertThat(facets.getCategories()).containsOnlyKeys("mobile", "tablet");
+		assertThat(facets.getPriceHistogram()).extracting("from").containsExactly(100.0, 900.0);
+	}
+
+	@Test
+	void filteredFacetsOnlyCountMatchingProducts() {
+		ProductFacetIndex index = new ProductFacetIndex(100);
+		index.add(1, "Apple", "mobile", 950);
+		index.add(2, "Samsung", "mobile", 120);
+		index.add(3, "Apple", "laptop", 1999);
+
+		ProductFacets facets = index.facets(new int[]{1, 2}, null, "mobile", 100.0, 500.0);
+		assertThat(facets.getTotal()).isEqualTo(1);
+		assertThat(facets.getBrands()).containsOnlyKeys("Samsung");
+	}
+
+	@Test
+	void brandAndCategoryFiltersStartFromTheirOwnIds() {
+		ProductFacetIndex index = new ProductFacetIndex(100);
+		index.add(1, "Apple", "mobile", 950);
+		index.add(2, "Samsung", "mobile", 120);
+		index.add(3, "Apple", "laptop", 1999);
+		index.add(3, "Samsung", "laptop", 1999);
+
+		ProductFacets facets = index.facets(null, "Apple", null, null, null);
+		assertThat(facets.getTotal()).isEqualTo(1);
+		assertThat(facets.getCategories()).containsOnly(Map.entry("mobile", 1L));
+		assertThat(index.facets(null, "Samsung", "laptop", null, null).getTotal()).isEqualTo(1);
+		assertThat(index.facets(null, "Nokia", null, null, null).getTotal()).isZero();
+		assertThatThrownBy(() -> index.add(Integer.MAX_VALUE + 1L, "Apple", "mobile", 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.fla.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceIndexTests {
+
+	@Test
+	void returnsRangesInPriceOrderPerBrand() {
+		ProductPriceIndex index = new ProductPriceIndex();
+		index.add(1, "Apple", 999);
+		index.add(2, "Samsung", 120);
+		index.add(3, "Apple", 450);
+		index.add(4, "Apple", 120);
+
+		assertThat(index.findIds(100, 500)).containsExactly(2, 4, 3);
+		assertThat(index.findIds("Apple", 100, 1000)).containsExactly(4, 3, 1);
+		assertThat(index.findIds("Nokia", 0, 1000)).isEmpty();
+		assertThat(index.findIds(500, 100)).isEmpty();
+	}
+
+	@Test
+	void mergesNewEntriesAndDropsUpdatedOnes() {
+		ProductPriceIndex index = new ProductPriceIndex();
+		for (int id = 1; id <= 1000; id++) {
+			index.add(id, id % 2 == 0 ? "Even" : "Odd", 1000 - id);
+		}
+		assertThat(index.findIds(0, 2)).containsExactly(1000, 999, 998);
+
+		index.add(1000, "Odd", 5000);
+		index.remove(999);
+		assertThat(index.findIds(0, 2)).containsExactly(998);
+		assertThat(index.findIds("Odd", 4000, 6000)).containsExactly(1000);
+		assertThat(index.findIds("Even", 4000, 6000)).isEmpty();
+	}
+
+	@Test
+	void interleavedPriceUpdatesAndRangeReadsMatchAFullScan() {
+		ProductPriceIndex index = new ProductPriceIndex();
+		Map<Long, Double> prices = new HashMap<>();
+		Map<Long, String> brands = new HashMap<>();
+		Random random = new Random(42);
+		for (long id = 1; id <= 5000; id++) {
+			double price = random.nextInt(1000);
+			String brand = "brand-" + random.nextInt(5);
+			index.add(id, brand, price);
+			prices.put(id, price);
+			brands.put(id, brand);
+		}
+
+		for (int round = 0; round < 20_000; round++) {
+			long id = 1 + random.nextInt(5000);
+			if (random.nextInt(10) == 0) {
+				index.remove(id);
+				prices.remove(id);
+			} else {
+				double price = random.nextInt(1000);
+				index.add(id, brands.get(id), price);
+				prices.put(id, price);
+			}
+			if (round % 50 == 0) {
+				double min = random.nextInt(1000);
+				double max = min + random.nextInt(200);
+				String brand = random.nextBoolean() ? null : "brand-" + random.nextInt(5);
+				assertThat(index.findIds(brand, min, max)).containsExactly(expected(prices, brands, brand, min, max));
+			}
+		}
+	}
+
+	@Test
+	void removesFromTheSortedColumnsAndTheTailWithoutCompacting() {
+		ProductPriceIndex.Partition partition = new ProductPriceIndex.Partition();
+		for (int id = 1; id <= 10; id++) {
+			partition.append(id * 10, id);
+		}
+		partition.compact();
+		partition.append(55, 11);
+		partition.append(5, 12);
+
+		assertThat(partition.remove(30, 3)).isTrue();
+		assertThat(partition.remove(30, 3)).isFalse();
+		assertThat(partition.remove(55, 11)).isTrue();
+		assertThat(partition.size()).isEqualTo(10);
+		assertThat(partition.range(0, 60)).containsExactly(12, 1, 2, 4, 5, 6);
+
+		partition.append(30, 3); // Same price again after its removal
+		assertThat(partition.range(25, 35)).containsExactly(3);
+		assertThat(partition.remove(30, 3)).isTrue();
+		assertThat(partition.range(25, 35)).isEmpty();
+	}
+
+	private static long[] expected(Map<Long, Double> prices, Map<Long, String> brands, String brand, double min, double max) {
+		return prices.entrySet().stream()
+				.filter(e -> e.getValue() >= min && e.getValue() <= max)
+				.filter(e -> brand == null || brand.equals(brands.get(e.getKey())))
+				.sorted(Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue).thenComparing(Map.Entry::getKey))
+				.mapToLong(Map.Entry::getKey)
+				.toArray();
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.fla.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductTitleIndexTests {
+
+	@Test
+	void findsSubstringsCaseInsensitively() {
+		ProductTitleIndex index = new ProductTitleIndex();
+		index.add(1, "Apple iPhone 15");
+		index.add(2, "Samsung Galaxy Phone");
+		index.add(3, "Phone Case");
+
+		assertThat(index.search("PHONE")).containsExactly(1, 2, 3);
+		assertThat(index.search("iphone")).containsExactly(1);
+		assertThat(index.search("ph")).containsExactly(1, 2, 3);
+		assertThat(index.search("e")).containsExactly(1, 2, 3); // Not indexed, answered by a scan
+		assertThat(ProductTitleIndex.isIndexed("e")).isFalse();
+		assertThat(ProductTitleIndex.isIndexed("ph")).isTrue();
+		assertThat(index.search("tablet")).isEmpty();
+	}
+
+	@Test
+	void rejectsCandidatesThatShareTrigramsButNotTheTerm() {
+		ProductTitleIndex index = new ProductTitleIndex();
+		index.add(1, "abcd xbcde");
+		index.add(2, "abcde");
+
+		assertThat(index.search("abcde")).containsExactly(2);
+	}
+
+	@Test
+	void staysInSyncWithUpdatesAndDeletes() {
+		ProductTitleIndex index = new ProductTitleIndex();
+		index.add(1, "Laptop");
+		index.add(2, "Laptop Bag");
+
+		index.add(1, "Desktop");
+		assertThat(index.search("laptop")).containsExactly(2);
+		assertThat(index.search("desk")).containsExactly(1);
+
+		index.remove(2);
+		assertThat(index.search("laptop")).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.fla.db.service;
+
+import com.fla.db.model.Product;
+import com.fla.db.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase
+class ProductCacheTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void reset() {
+		productRepository.deleteAll();
+		cacheManager.getCache("products").clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@Test
+	void cachesFoundAndNotFoundLookups() {
+		Product lamp = productService.createProduct(new Product(null, "Lamp", 40, "Lumo", "Home"));
+		cacheManager.getCache("products").clear();
+
+		long queries = count(() -> {
+			productService.getProductById(lamp.getId());
+			productService.getProductById(lamp.getId());
+		});
+		assertThat(queries).isEqualTo(1);
+
+		long missing = lamp.getId() + 1000;
+		queries = count(() -> {
+			assertThat(productService.getProductById(missing)).isNull();
+			assertThat(productService.getProductById(missing)).isNull();
+		});
+		assertThat(queries).isEqualTo(1);
+	}
+
+	@Test
+	void creatingAProductReplacesACachedNotFound() {
+		long last = productService.createProduct(new Product(null, "First", 10, null, null)).getId();
+		for (long id = last + 1; id <= last + Product.ID_ALLOCATION_SIZE; id++) {
+			assertThat(productService.getProductById(id)).isNull(); // Caches "not found" for the ids the sequence hands out next
+		}
+
+		Product created = productService.createProduct(new Product(null, "Second", 20, null, null));
+		assertThat(created.getId()).isBetween(last + 1, last + Product.ID_ALLOCATION_SIZE);
+		long queries = count(() -> assertThat(productService.getProductById(created.getId()))
+				.extracting(Product::getTitle).isEqualTo("Second"));
+		assertThat(queries).isZero();
+	}
+
+	@Test
+	void updatesReplaceAndDeletesEvictTheCachedProduct() {
+		Product lamp = productService.createProduct(new Product(null, "Lamp", 40, "Lumo", "Home"));
+		productService.getProductById(lamp.getId());
+
+		productService.patchProduct(lamp.getId(), Map.of("price", 35), null);
+		long queries = count(() -> assertThat(productService.getProductById(lamp.getId()))
+				.extracting(Product::getPrice, Product::getVersion).containsExactly(35.0, 1L));
+		assertThat(queries).isZero();
+
+		productService.updateProduct(lamp.getId(), new Product(null, "Desk lamp", 45, "Lumo", "Home"), 1L);
+		assertThat(productService.getProductById(lamp.getId()).getTitle()).isEqualTo("Desk lamp");
+
+		assertThat(productService.deleteProduct(lamp.getId())).isTrue();
+		assertThat(productService.getProductById(lamp.getId())).isNull();
+	}
+
+	private long count(Runnable action) {
+		statistics.clear();
+		action.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+}
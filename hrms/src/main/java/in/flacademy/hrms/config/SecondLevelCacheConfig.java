@@ -0,0 +1,30 @@
+package in.flacademy.hrms.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+// Hands Hibernate a CacheManager of its own for the second-level cache instead of the provider's JVM-wide default.
+// Hibernate closes the manager with the SessionFactory, so with a shared one closing any context (e.g. a test
+// context that failed to start) would close the caches under every other context in the same JVM.
+// The manager still reads its region settings from application.conf.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> {
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            URI uri = URI.create("hrms:second-level-cache:" + UUID.randomUUID());
+            properties.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(uri, getClass().getClassLoader()));
+        };
+    }
+
+}
@@ -0,0 +1,45 @@
+package in.flacademy.hrms.controller;
+
+import in.flacademy.hrms.model.ChangeFeed;
+import in.flacademy.hrms.service.ChangeEventService;
+import in.flacademy.hrms.service.ChangeStreamService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+public class ChangeController {
+
+    private final ChangeEventService changeEventService;
+    private final ChangeStreamService changeStreamService;
+
+    public ChangeController(ChangeEventService changeEventService, ChangeStreamService changeStreamService) {
+        this.changeEventService = changeEventService;
+        this.changeStreamService = changeStreamService;
+    }
+
+    // GET /api/v1/changes?since=N&limit= returns events after sequence N, oldest first.
+    // Events are kept for hrms.changes.retention (7 days by default); a consumer further behind than that
+    // gets the oldest retained events without the purged ones and should resync from the entity endpoints.
+    @GetMapping
+    public ChangeFeed getChanges(@RequestParam(defaultValue = "0") long since,
+                                 @RequestParam(defaultValue = "500") int limit) {
+        return changeEventService.getChanges(since, limit);
+    }
+
+    // Server-Sent Events; each event id is its sequence, so a reconnecting client resumes via Last-Event-ID
+    // (within the same retention window as ?since=)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStreamService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
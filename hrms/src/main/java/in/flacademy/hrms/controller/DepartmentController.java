@@ -1,7 +1,11 @@
 package in.flacademy.hrms.controller;
 
 import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.DepartmentSummary;
+import in.flacademy.hrms.model.EmployeePage;
 import in.flacademy.hrms.service.DepartmentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,11 +26,29 @@ public class DepartmentController {
         return departmentService.getAllDepartments();
     }
 
+    // Id, name and head count (plus per-role counts with ?byRole=true) without the employee lists
+    @GetMapping("/summary")
+    public List<DepartmentSummary> getDepartmentSummaries(@RequestParam(defaultValue = "false") boolean byRole) {
+        return departmentService.getDepartmentSummaries(byRole);
+    }
+
     @GetMapping("/{id}")
     public Department getDepartmentById(@PathVariable Long id) {
         return departmentService.getDepartmentById(id);
     }
 
+    // The department's roster, paged like GET /api/v1/employees
+    @GetMapping("/{id}/employees")
+    public EmployeePage getDepartmentEmployees(@PathVariable Long id,
+                                               @RequestParam(required = false) String role,
+                                               @RequestParam(defaultValue = "name") String sort,
+                                               @RequestParam(defaultValue = "asc") String direction,
+                                               @RequestParam(required = false) Integer page,
+                                               @RequestParam(defaultValue = "50") int size,
+                                               @RequestParam(required = false) String cursor) {
+        return departmentService.getDepartmentEmployees(id, role, sort, direction, page, size, cursor);
+    }
+
     @PostMapping
     public Department createDepartment(@RequestBody Department department) {
         return departmentService.createDepartment(department);
@@ -41,4 +63,9 @@ public class DepartmentController {
     public void deleteDepartment(@PathVariable Long id) {
         departmentService.deleteDepartment(id);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
 }
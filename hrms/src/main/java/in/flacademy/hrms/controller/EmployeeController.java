@@ -1,27 +1,123 @@
 package in.flacademy.hrms.controller;
 
+import in.flacademy.hrms.model.BulkItemResult;
+import in.flacademy.hrms.model.DepartmentTransfer;
 import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.model.EmployeePage;
+import in.flacademy.hrms.model.EmployeeSearchHit;
+import in.flacademy.hrms.service.EmployeeExportService;
+import in.flacademy.hrms.service.EmployeeSearchService;
 import in.flacademy.hrms.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/employees")
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeSearchService employeeSearchService;
 
     @Autowired
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeExportService employeeExportService,
+                              EmployeeSearchService employeeSearchService) {
         this.employeeService = employeeService;
+        this.employeeExportService = employeeExportService;
+        this.employeeSearchService = employeeSearchService;
     }
 
+    // Deprecated in favour of /page. Keeps its array shape for existing clients but is capped at
+    // hrms.directory.list-limit employees in id order; Link rel="next" continues the walk on /page
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees() {
+        EmployeePage first = employeeService.getFirstEmployees();
+        String links = "</api/v1/employees/page>; rel=\"successor-version\"";
+        if (first.getNextCursor() != null) {
+            links += ", </api/v1/employees/page?cursor=" + first.getNextCursor() + ">; rel=\"next\"";
+        }
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, links)
+                .body(first.getItems());
+    }
+
+    // GET /api/v1/employees/page?role=&departmentId=&sort=id|name|role&direction=asc|desc&size=&page= (or &cursor=)
+    // returns one page as {items, nextCursor}
+    @GetMapping("/page")
+    public EmployeePage getEmployeePage(@RequestParam(required = false) String role,
+                                     @RequestParam(required = false) Long departmentId,
+                                     @RequestParam(defaultValue = "id") String sort,
+                                     @RequestParam(defaultValue = "asc") String direction,
+                                     @RequestParam(required = false) Integer page,
+                                     @RequestParam(defaultValue = "50") int size,
+                                     @RequestParam(required = false) String cursor) {
+        return employeeService.getEmployeePage(role, departmentId, sort, direction, page, size, cursor);
+    }
+
+    // GET /api/v1/employees/export?format=csv|ndjson streams every employee with its department name,
+    // gzipped when the client accepts it (only this response is compressed, not the JSON endpoints)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(defaultValue = "csv") String format,
+                                                                 HttpServletRequest request) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        if (format.equalsIgnoreCase("csv")) {
+            body = employeeExportService::exportCsv;
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            body = employeeExportService::exportNdjson;
+            contentType = MediaType.APPLICATION_NDJSON;
+        } else {
+            throw new IllegalArgumentException("format must be csv or ndjson");
+        }
+        // A full export outlives the default async timeout, so only this request gets the longer one
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(employeeExportService.getTimeout().toMillis());
+        String fileName = "employees." + format.toLowerCase();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request)) {
+            StreamingResponseBody export = body;
+            body = outputStream -> {
+                // Closing the gzip stream writes its trailer; the response stream itself stays open for Spring
+                try (GZIPOutputStream gzip = new GZIPOutputStream(StreamUtils.nonClosing(outputStream), 8192)) {
+                    export.writeTo(gzip);
+                }
+            };
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // GET /api/v1/employees/search?q=&limit= ranks employees by name, role and department name,
+    // tolerating prefixes and typos; 503 until the index has been built
+    @GetMapping("/search")
+    public ResponseEntity<List<EmployeeSearchHit>> searchEmployees(@RequestParam String q,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        List<EmployeeSearchHit> hits = employeeSearchService.search(q, limit);
+        return hits == null ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build() : ResponseEntity.ok(hits);
     }
 
+    // Rebuilds the search index from the database in the background; searches keep using the old one meanwhile
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        return employeeSearchService.rebuild() ? ResponseEntity.accepted().build() : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 
     @GetMapping("/{id}")
     public Employee getEmployeeById(@PathVariable Long id) {
@@ -33,6 +129,18 @@ public class EmployeeController {
         return employeeService.createEmployee(employee);
     }
 
+    // Creates many employees in one transaction; each item is reported as created (with its id) or rejected
+    @PostMapping("/bulk")
+    public List<BulkItemResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.createEmployees(employees);
+    }
+
+    // Moves the listed employees to one department; unknown ids are reported as rejected
+    @PostMapping("/transfer")
+    public List<BulkItemResult> transferEmployees(@RequestBody DepartmentTransfer transfer) {
+        return employeeService.transferEmployees(transfer);
+    }
+
     @PutMapping("/{id}")
     public Employee updateEmployee(@PathVariable Long id, @RequestBody Employee employeeDetails) {
         return employeeService.updateEmployee(id, employeeDetails);
@@ -43,4 +151,23 @@ public class EmployeeController {
         employeeService.deleteEmployee(id);
     }
 
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
 }
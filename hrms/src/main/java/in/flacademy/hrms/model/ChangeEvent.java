@@ -0,0 +1,92 @@
+package in.flacademy.hrms.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Outbox row written in the same transaction as the change it describes.
+// sequence is stamped after commit by ChangeStreamService, in commit order, and is what consumers page by.
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_change_event_sequence", columnList = "sequence_number", unique = true),
+        @Index(name = "idx_change_event_occurred_at", columnList = "occurred_at") // Retention purge
+})
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    @Column(name = "sequence_number")
+    private Long sequence;
+
+    private String entityType; // "employee" or "department"
+    private Long entityId;
+    private String action; // "created", "updated" or "deleted"
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON of the fields that were written; null for deletes
+
+    private Instant occurredAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    @JsonRawValue
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,34 @@
+package in.flacademy.hrms.model;
+
+import java.util.List;
+
+// A batch of change events; pass nextSince as ?since= to continue after the last event
+public class ChangeFeed {
+
+    private List<ChangeEvent> events;
+    private long nextSince;
+
+    public ChangeFeed() {
+    }
+
+    public ChangeFeed(List<ChangeEvent> events, long nextSince) {
+        this.events = events;
+        this.nextSince = nextSince;
+    }
+
+    public List<ChangeEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<ChangeEvent> events) {
+        this.events = events;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(long nextSince) {
+        this.nextSince = nextSince;
+    }
+}
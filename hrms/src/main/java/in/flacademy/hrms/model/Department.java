@@ -2,10 +2,17 @@ package in.flacademy.hrms.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+// Departments are read far more often than written; rows are kept in the second-level cache.
+// It serves lookups by id (findById, an employee's lazy department) and the cacheable id queries;
+// listings that join the employees in still read the rows with their SELECT.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Department {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
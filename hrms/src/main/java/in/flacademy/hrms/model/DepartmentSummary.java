@@ -0,0 +1,56 @@
+package in.flacademy.hrms.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+// Department head count without the employee list; roles is only filled in when asked for
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DepartmentSummary {
+
+    private Long id;
+    private String name;
+    private long employeeCount;
+    private Map<String, Long> roles;
+
+    public DepartmentSummary() {
+    }
+
+    public DepartmentSummary(Long id, String name, long employeeCount) {
+        this.id = id;
+        this.name = name;
+        this.employeeCount = employeeCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public Map<String, Long> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Map<String, Long> roles) {
+        this.roles = roles;
+    }
+}
@@ -0,0 +1,26 @@
+package in.flacademy.hrms.model;
+
+import java.util.List;
+
+// Request body for moving a set of employees into one department
+public class DepartmentTransfer {
+
+    private Long departmentId;
+    private List<Long> employeeIds;
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public List<Long> getEmployeeIds() {
+        return employeeIds;
+    }
+
+    public void setEmployeeIds(List<Long> employeeIds) {
+        this.employeeIds = employeeIds;
+    }
+}
@@ -4,6 +4,12 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 @Entity
+// Cover the directory's filter + sort orders so every page is an index range scan
+@Table(indexes = {
+        @Index(name = "idx_employee_name", columnList = "name, id"),
+        @Index(name = "idx_employee_role", columnList = "role, name, id"),
+        @Index(name = "idx_employee_department", columnList = "department_id, name, id")
+})
 public class Employee {
 
     @Id
@@ -14,7 +20,7 @@ public class Employee {
     private String role;
 
     @JsonBackReference
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY) // Listings fetch it through an entity graph when needed
     @JoinColumn(name = "department_id")
     private Department department;
 
@@ -59,4 +65,13 @@ public class Employee {
     public void setDepartment(Department department) {
         this.department = department;
     }
+
+    // Clients read and set the department by id; the back reference itself is not serialized
+    public Long getDepartmentId() {
+        return department == null ? null : department.getId();
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.department = departmentId == null ? null : new Department(departmentId, null); // Resolved by EmployeeService
+    }
 }
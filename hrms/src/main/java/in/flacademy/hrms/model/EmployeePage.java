@@ -0,0 +1,34 @@
+package in.flacademy.hrms.model;
+
+import java.util.List;
+
+// One page of the employee directory; nextCursor continues after the last item (null on the last page)
+public class EmployeePage {
+
+    private List<Employee> items;
+    private String nextCursor;
+
+    public EmployeePage() {
+    }
+
+    public EmployeePage(List<Employee> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Employee> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Employee> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,72 @@
+package in.flacademy.hrms.model;
+
+// One ranked employee search result
+public class EmployeeSearchHit {
+
+    private Long id;
+    private String name;
+    private String role;
+    private Long departmentId;
+    private String departmentName;
+    private double score;
+
+    public EmployeeSearchHit() {
+    }
+
+    public EmployeeSearchHit(Long id, String name, String role, Long departmentId, String departmentName, double score) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+        this.departmentId = departmentId;
+        this.departmentName = departmentName;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,16 @@
+package in.flacademy.hrms.repository;
+import in.flacademy.hrms.model.ChangeEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    // Only stamped (committed and ordered) events are ever delivered
+    List<ChangeEvent> findBySequenceGreaterThanOrderBySequenceAsc(long since, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM ChangeEvent c")
+    long findLastSequence();
+}
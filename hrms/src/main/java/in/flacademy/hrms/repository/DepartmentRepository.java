@@ -1,6 +1,40 @@
 package in.flacademy.hrms.repository;
 import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.DepartmentSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    // Loads the employees in the same SELECT so serializing them does not fire one query per department.
+    // Like any query, this skips the second-level cache; reads that need no roster use findById instead.
+    @EntityGraph(attributePaths = "employees")
+    @Query("SELECT d FROM Department d ORDER BY d.id")
+    List<Department> findAllWithEmployees();
+
+    @EntityGraph(attributePaths = "employees")
+    Optional<Department> findWithEmployeesById(Long id);
+
+    // Head counts are aggregated in the database; no Employee entities are loaded
+    @Query("SELECT new in.flacademy.hrms.model.DepartmentSummary(d.id, d.name, COUNT(e)) "
+            + "FROM Department d LEFT JOIN d.employees e GROUP BY d.id, d.name ORDER BY d.id")
+    List<DepartmentSummary> summarizeAll();
+
+    @Query("SELECT e.department.id AS departmentId, e.role AS role, COUNT(e) AS employeeCount "
+            + "FROM Employee e WHERE e.department IS NOT NULL GROUP BY e.department.id, e.role")
+    List<DepartmentRoleCount> countByDepartmentAndRole();
+
+    // Served from the query cache until a Department row changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.id FROM Department d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
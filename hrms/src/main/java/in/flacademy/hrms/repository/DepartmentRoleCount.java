@@ -0,0 +1,11 @@
+package in.flacademy.hrms.repository;
+
+// One row of the per-department, per-role head count query
+public interface DepartmentRoleCount {
+
+    Long getDepartmentId();
+
+    String getRole();
+
+    long getEmployeeCount();
+}
@@ -1,7 +1,30 @@
 package in.flacademy.hrms.repository;
+import in.flacademy.hrms.model.Department;
 import in.flacademy.hrms.model.Employee;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeRepositoryCustom {
+
+    // One joined SELECT instead of one department lookup per distinct department
+    @EntityGraph(attributePaths = "department")
+    @Query("SELECT e FROM Employee e ORDER BY e.id")
+    List<Employee> findAllWithDepartment();
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // One set-based UPDATE; clears the persistence context so no stale Employee survives it
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Employee e SET e.department = :department WHERE e.id IN :ids")
+    int moveToDepartment(@Param("department") Department department, @Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,11 @@
+package in.flacademy.hrms.repository;
+
+import in.flacademy.hrms.model.Employee;
+
+import java.util.List;
+
+public interface EmployeeRepositoryCustom {
+
+    // Inserts the employees as JDBC batches and returns the generated ids in the same order
+    List<Long> insertAll(List<Employee> employees);
+}
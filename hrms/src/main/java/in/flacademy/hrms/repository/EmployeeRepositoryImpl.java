@@ -0,0 +1,60 @@
+package in.flacademy.hrms.repository;
+
+import in.flacademy.hrms.model.Employee;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    // IDENTITY ids stop Hibernate from batching inserts, so bulk inserts go straight through JDBC
+    private static final String INSERT_SQL = "INSERT INTO employee (name, role, department_id) VALUES (?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> insertAll(List<Employee> employees) {
+        List<Long> ids = new ArrayList<>(employees.size());
+        for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+            List<Employee> batch = employees.subList(from, Math.min(from + BATCH_SIZE, employees.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Employee employee = batch.get(i);
+                            ps.setString(1, employee.getName());
+                            ps.setString(2, employee.getRole());
+                            if (employee.getDepartmentId() == null) {
+                                ps.setNull(3, Types.BIGINT);
+                            } else {
+                                ps.setLong(3, employee.getDepartmentId());
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keyHolder);
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,286 @@
+package in.flacademy.hrms.search;
+
+import in.flacademy.hrms.model.EmployeeSearchHit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over employee name and role, plus department names. A department match expands to
+// that department's employees, so renaming a department only re-indexes the department itself.
+// Every query token must match a document, exactly or as a prefix of a term. A token that matches
+// nothing as typed falls back to terms within a small edit distance. Each match scores by match kind
+// times field weight, and the best documents come first.
+public class EmployeeSearchIndex {
+
+    private static final double NAME_WEIGHT = 3;
+    private static final double ROLE_WEIGHT = 2;
+    private static final double DEPARTMENT_WEIGHT = 1;
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.6;
+    private static final double ONE_EDIT = 0.4;
+    private static final double TWO_EDITS = 0.25;
+
+    private final Map<Long, Doc> employees = new HashMap<>();
+    private final TreeMap<String, Map<Long, Double>> employeeTerms = new TreeMap<>(); // term -> employee id -> field weight
+    private final Map<Long, String> departmentNames = new HashMap<>();
+    private final TreeMap<String, Set<Long>> departmentTerms = new TreeMap<>(); // term -> department ids
+    private final Map<Long, Set<Long>> employeesByDepartment = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void putEmployee(long id, String name, String role, Long departmentId) {
+        lock.writeLock().lock();
+        try {
+            removeEmployeeLocked(id);
+            employees.put(id, new Doc(name, role, departmentId));
+            Map<String, Double> weights = new HashMap<>();
+            for (String term : tokenize(role)) {
+                weights.merge(term, ROLE_WEIGHT, Math::max);
+            }
+            for (String term : tokenize(name)) {
+                weights.merge(term, NAME_WEIGHT, Math::max);
+            }
+            weights.forEach((term, weight) -> employeeTerms.computeIfAbsent(term, key -> new HashMap<>()).put(id, weight));
+            if (departmentId != null) {
+                employeesByDepartment.computeIfAbsent(departmentId, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(long id) {
+        lock.writeLock().lock();
+        try {
+            removeEmployeeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Department transfer; the name and role terms stay as they are
+    public void moveEmployee(long id, Long departmentId) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = employees.get(id);
+            if (doc != null) {
+                leaveDepartment(id, doc.departmentId);
+                employees.put(id, new Doc(doc.name, doc.role, departmentId));
+                if (departmentId != null) {
+                    employeesByDepartment.computeIfAbsent(departmentId, key -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putDepartment(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeDepartmentTerms(id);
+            departmentNames.put(id, name);
+            for (String term : tokenize(name)) {
+                departmentTerms.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeDepartment(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDepartmentTerms(id);
+            departmentNames.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return employees.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<EmployeeSearchHit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = score(token, scores); // Later tokens only score the surviving candidates
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet()); // Every token has to match
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<EmployeeSearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                Doc doc = employees.get(id);
+                hits.add(new EmployeeSearchHit(id, doc.name, doc.role, doc.departmentId,
+                        doc.departmentId == null ? null : departmentNames.get(doc.departmentId), score));
+            });
+            hits.sort(Comparator.comparingDouble(EmployeeSearchHit::getScore).reversed()
+                    .thenComparing(EmployeeSearchHit::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(EmployeeSearchHit::getId));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score of each employee (of the candidates, when given) for one query token,
+    // across its own terms and its department's terms
+    private Map<Long, Double> score(String token, Map<Long, Double> candidates) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Double> employeeMatches = matchingTerms(token, employeeTerms);
+        Map<String, Double> departmentMatches = matchingTerms(token, departmentTerms);
+        if (employeeMatches.isEmpty() && departmentMatches.isEmpty()) {
+            employeeMatches = fuzzyTerms(token, employeeTerms); // Typo tolerance only when nothing matches as typed
+            departmentMatches = fuzzyTerms(token, departmentTerms);
+        }
+        for (Map.Entry<String, Double> match : employeeMatches.entrySet()) {
+            double quality = match.getValue();
+            employeeTerms.get(match.getKey()).forEach((id, weight) -> {
+                if (candidates == null || candidates.containsKey(id)) {
+                    scores.merge(id, quality * weight, Math::max);
+                }
+            });
+        }
+        for (Map.Entry<String, Double> match : departmentMatches.entrySet()) {
+            for (Long departmentId : departmentTerms.get(match.getKey())) {
+                for (Long id : employeesByDepartment.getOrDefault(departmentId, Set.of())) {
+                    if (candidates == null || candidates.containsKey(id)) {
+                        scores.merge(id, match.getValue() * DEPARTMENT_WEIGHT, Math::max);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    // Terms equal to the token or starting with it
+    private static Map<String, Double> matchingTerms(String token, TreeMap<String, ?> terms) {
+        Map<String, Double> matches = new HashMap<>();
+        SortedMap<String, ?> prefixed = terms.subMap(token, token + Character.MAX_VALUE);
+        for (String term : prefixed.keySet()) {
+            matches.put(term, term.length() == token.length() ? EXACT : PREFIX);
+        }
+        return matches;
+    }
+
+    // Terms within one edit of the token (two from eight characters on); scans the term dictionary
+    private static Map<String, Double> fuzzyTerms(String token, TreeMap<String, ?> terms) {
+        Map<String, Double> matches = new HashMap<>();
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            for (String term : terms.keySet()) {
+                if (Math.abs(term.length() - token.length()) <= maxEdits) {
+                    int edits = editDistance(token, term, maxEdits);
+                    if (edits <= maxEdits) {
+                        matches.put(term, edits == 1 ? ONE_EDIT : TWO_EDITS);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Levenshtein distance, giving up (returning max + 1) once every path costs more than max
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeEmployeeLocked(long id) {
+        Doc doc = employees.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : tokenize(doc.name + " " + doc.role)) {
+            Map<Long, Double> postings = employeeTerms.get(term);
+            if (postings != null && postings.remove(id) != null && postings.isEmpty()) {
+                employeeTerms.remove(term);
+            }
+        }
+        leaveDepartment(id, doc.departmentId);
+    }
+
+    private void leaveDepartment(long id, Long departmentId) {
+        if (departmentId == null) {
+            return;
+        }
+        Set<Long> members = employeesByDepartment.get(departmentId);
+        if (members != null && members.remove(id) && members.isEmpty()) {
+            employeesByDepartment.remove(departmentId);
+        }
+    }
+
+    private void removeDepartmentTerms(long id) {
+        String previous = departmentNames.get(id);
+        for (String term : tokenize(previous)) {
+            Set<Long> ids = departmentTerms.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                departmentTerms.remove(term);
+            }
+        }
+    }
+
+    private record Doc(String name, String role, Long departmentId) {
+    }
+}
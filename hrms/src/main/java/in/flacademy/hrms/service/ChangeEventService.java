@@ -0,0 +1,91 @@
+package in.flacademy.hrms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.flacademy.hrms.model.ChangeEvent;
+import in.flacademy.hrms.model.ChangeFeed;
+import in.flacademy.hrms.repository.ChangeEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Transactional outbox for employee and department changes. Events are inserted in the caller's
+// transaction, so they exist exactly when the change commits; ChangeStreamService then orders them.
+@Service
+public class ChangeEventService {
+
+    public static final int MAX_FEED_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO change_event (entity_type, entity_id, action, payload, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChangeEventRepository changeEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ChangeEventService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              ChangeEventRepository changeEventRepository, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.changeEventRepository = changeEventRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String entityType, String action, Long entityId, Object payload) {
+        recordAll(entityType, action, List.of(new Change(entityId, payload)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String entityType, String action, List<Change> changes) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            rows.add(new Object[]{entityType, change.entityId(), action, toJson(change.payload()), now});
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        eventPublisher.publishEvent(new ChangesRecorded()); // Delivered after commit
+    }
+
+    public ChangeFeed getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        if (limit < 1 || limit > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_FEED_SIZE);
+        }
+        List<ChangeEvent> events = changeEventRepository.findBySequenceGreaterThanOrderBySequenceAsc(since, Limit.of(limit));
+        long nextSince = events.isEmpty() ? since : events.get(events.size() - 1).getSequence();
+        return new ChangeFeed(events, nextSince);
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Change(Long entityId, Object payload) {
+    }
+
+    // Published inside the writing transaction; listeners use @TransactionalEventListener to run after commit
+    public record ChangesRecorded() {
+    }
+}
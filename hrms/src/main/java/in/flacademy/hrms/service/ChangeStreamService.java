@@ -0,0 +1,222 @@
+package in.flacademy.hrms.service;
+
+import in.flacademy.hrms.model.ChangeEvent;
+import in.flacademy.hrms.repository.ChangeEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Relays outbox rows to consumers. One thread stamps newly committed events with the next sequence
+// numbers, in the order it sees them, then pushes them to the SSE subscribers. Writers never
+// contend for a shared counter, and a consumer paging by sequence can never skip an event that
+// committed late. Woken after each committing write; the poll interval is a fallback and an SSE heartbeat.
+// The same thread purges relayed events once they are older than the retention, which bounds how far back
+// ?since= and Last-Event-ID can replay. Assumes one relay per database, i.e. a single hrms instance.
+@Service
+public class ChangeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final ChangeEventRepository changeEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration emitterTimeout;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+    private final long pollIntervalMillis;
+    private final Duration retention;
+    private final long purgeIntervalMillis;
+    private long lastSequence = -1; // Only touched by the relay thread
+
+    public ChangeStreamService(ChangeEventRepository changeEventRepository, JdbcTemplate jdbcTemplate,
+                               @Value("${hrms.changes.poll-interval:5s}") Duration pollInterval,
+                               @Value("${hrms.changes.sse-timeout:30m}") Duration emitterTimeout,
+                               @Value("${hrms.changes.retention:7d}") Duration retention,
+                               @Value("${hrms.changes.purge-interval:1h}") Duration purgeInterval) {
+        this.changeEventRepository = changeEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.emitterTimeout = emitterTimeout;
+        this.retention = retention;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay.scheduleWithFixedDelay(this::tick, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purge, purgeIntervalMillis, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        relay.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @TransactionalEventListener
+    public void onChangesRecorded(ChangeEventService.ChangesRecorded event) {
+        wake();
+    }
+
+    // Streams events after the given sequence (or only new ones when null); clients resume with Last-Event-ID
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since != null ? since : changeEventRepository.findLastSequence());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wake(); // Sends the backlog straight away
+        return emitter;
+    }
+
+    private void wake() {
+        if (wakeQueued.compareAndSet(false, true)) {
+            relay.execute(() -> {
+                wakeQueued.set(false);
+                relay();
+            });
+        }
+    }
+
+    private void tick() {
+        relay();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat")); // Also finds dead connections
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    private void relay() {
+        try {
+            stampPending();
+            dispatch();
+        } catch (RuntimeException e) {
+            lastSequence = -1; // Re-read the high-water mark before stamping again
+            log.warn("Change relay failed, retrying on the next tick", e); // Keep the scheduled task alive
+        }
+    }
+
+    private void stampPending() {
+        if (lastSequence < 0) {
+            lastSequence = changeEventRepository.findLastSequence();
+        }
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM change_event WHERE sequence_number IS NULL ORDER BY id LIMIT " + BATCH_SIZE, Long.class);
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<Object[]> stamps = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                stamps.add(new Object[]{lastSequence + 1 + i, ids.get(i)});
+            }
+            jdbcTemplate.batchUpdate("UPDATE change_event SET sequence_number = ? WHERE id = ?", stamps);
+            lastSequence += ids.size();
+        }
+    }
+
+    private void dispatch() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long from = subscribers.stream().mapToLong(subscriber -> subscriber.cursor).min().orElse(lastSequence);
+        while (from < lastSequence) {
+            List<ChangeEvent> batch = changeEventRepository.findBySequenceGreaterThanOrderBySequenceAsc(from, Limit.of(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, batch);
+            }
+            from = batch.get(batch.size() - 1).getSequence();
+        }
+    }
+
+    private void send(Subscriber subscriber, List<ChangeEvent> batch) {
+        try {
+            for (ChangeEvent event : batch) {
+                if (event.getSequence() > subscriber.cursor) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getSequence()))
+                            .name(event.getEntityType() + "." + event.getAction())
+                            .data(event));
+                    subscriber.cursor = event.getSequence();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        }
+    }
+
+    // Deletes stamped events older than the retention and returns how many went. Unstamped rows are left to the
+    // relay, and the newest stamped event is always kept so the next sequence still follows it after a restart.
+    public int purgeExpired() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        int purged = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM change_event WHERE sequence_number IS NOT NULL "
+                    + "AND occurred_at < ? AND sequence_number < (SELECT MAX(sequence_number) FROM change_event) "
+                    + "ORDER BY id LIMIT " + BATCH_SIZE, Long.class, cutoff);
+            if (ids.isEmpty()) {
+                return purged;
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM change_event WHERE id = ?", ids.stream().map(id -> new Object[]{id}).toList());
+            purged += ids.size();
+        }
+    }
+
+    private void purge() {
+        try {
+            int purged = purgeExpired();
+            if (purged > 0) {
+                log.info("Purged {} change events older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change event purge failed, retrying on the next run", e); // Keep the scheduled task alive
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
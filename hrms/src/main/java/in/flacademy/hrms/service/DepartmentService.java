@@ -1,39 +1,107 @@
 package in.flacademy.hrms.service;
 
 import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.DepartmentSummary;
+import in.flacademy.hrms.model.EmployeePage;
 import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.DepartmentRoleCount;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final EmployeeService employeeService;
+    private final ChangeEventService changeEventService;
+    private final EmployeeSearchService employeeSearchService;
 
-    public DepartmentService(DepartmentRepository departmentRepository) {
+    public DepartmentService(DepartmentRepository departmentRepository, EmployeeService employeeService,
+                             ChangeEventService changeEventService, EmployeeSearchService employeeSearchService) {
         this.departmentRepository = departmentRepository;
+        this.employeeService = employeeService;
+        this.changeEventService = changeEventService;
+        this.employeeSearchService = employeeSearchService;
     }
 
     public List<Department> getAllDepartments() {
-        return departmentRepository.findAll();
+        return departmentRepository.findAllWithEmployees();
+    }
+
+    public List<DepartmentSummary> getDepartmentSummaries(boolean byRole) {
+        List<DepartmentSummary> summaries = departmentRepository.summarizeAll();
+        if (byRole) {
+            Map<Long, DepartmentSummary> byId = new HashMap<>();
+            for (DepartmentSummary summary : summaries) {
+                summary.setRoles(new TreeMap<>());
+                byId.put(summary.getId(), summary);
+            }
+            for (DepartmentRoleCount count : departmentRepository.countByDepartmentAndRole()) {
+                DepartmentSummary summary = byId.get(count.getDepartmentId());
+                if (summary != null) { // Skips a department created between the two queries
+                    summary.getRoles().put(count.getRole() == null ? "" : count.getRole(), count.getEmployeeCount());
+                }
+            }
+        }
+        return summaries;
     }
 
     public Department getDepartmentById(Long id) {
-        return departmentRepository.findById(id).orElseThrow(() -> new RuntimeException("Department not found"));
+        return departmentRepository.findWithEmployeesById(id).orElseThrow(() -> new RuntimeException("Department not found"));
+    }
+
+    public EmployeePage getDepartmentEmployees(Long id, String role, String sort, String direction,
+                                               Integer page, int size, String cursor) {
+        if (departmentRepository.findById(id).isEmpty()) { // Usually a second-level cache hit
+            throw new RuntimeException("Department not found");
+        }
+        return employeeService.getEmployeePage(role, id, sort, direction, page, size, cursor);
     }
 
+    @Transactional
     public Department createDepartment(Department department) {
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        changeEventService.record("department", "created", saved.getId(), changePayload(saved));
+        employeeSearchService.departmentSaved(saved.getId(), saved.getName());
+        return saved;
     }
 
+    @Transactional
     public Department updateDepartment(Long id, Department departmentDetails) {
-        Department department = getDepartmentById(id);
+        // A rename needs no roster, so the row comes from the second-level cache when it is there
+        Department department = departmentRepository.findById(id).orElseThrow(() -> new RuntimeException("Department not found"));
         department.setName(departmentDetails.getName());
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department); // READ_WRITE updates the cached row at commit
+        changeEventService.record("department", "updated", id, changePayload(saved));
+        employeeSearchService.departmentSaved(id, saved.getName()); // Employees pick up the new name through the department
+        return saved;
     }
 
+    @Transactional
     public void deleteDepartment(Long id) {
-        departmentRepository.deleteById(id);
+        departmentRepository.findWithEmployeesById(id).ifPresent(department -> {
+            // The employees go with it (cascade), so they get delete events too
+            List<ChangeEventService.Change> removedEmployees = department.getEmployees().stream()
+                    .map(employee -> new ChangeEventService.Change(employee.getId(), null))
+                    .toList();
+            departmentRepository.delete(department);
+            changeEventService.recordAll("employee", "deleted", removedEmployees);
+            changeEventService.record("department", "deleted", id, null);
+            employeeSearchService.employeesDeleted(removedEmployees.stream().map(ChangeEventService.Change::entityId).toList());
+            employeeSearchService.departmentDeleted(id);
+        });
+    }
+
+    private static Map<String, Object> changePayload(Department department) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", department.getId());
+        payload.put("name", department.getName());
+        return payload;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package in.flacademy.hrms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Streams the org chart (employees with their department) straight from a forward-only cursor to the
+// response. Only fetch-size rows are held in memory at a time; on MySQL the statement streams row by row
+// instead, which needs no useCursorFetch on the shared datasource URL. A failed write (client gone) cancels
+// the statement before JdbcTemplate closes the cursor and returns the connection: closing a streaming
+// Connector/J result set would otherwise read every remaining row first.
+@Service
+public class EmployeeExportService {
+
+    private static final String EXPORT_SQL = "SELECT e.id, e.name, e.role, d.id, d.name "
+            + "FROM employee e LEFT JOIN department d ON d.id = e.department_id ORDER BY e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Duration timeout;
+
+    public EmployeeExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                 @Value("${hrms.export.fetch-size:1000}") int fetchSize,
+                                 @Value("${hrms.export.timeout:30m}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+    }
+
+    // How long one export response may take; applied to that request only, other async requests keep the default
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void exportCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,name,role,departmentId,departmentName\n");
+        streamRows(rs -> {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writer.write(csvField(rs.getString(2)));
+            writer.write(',');
+            writer.write(csvField(rs.getString(3)));
+            writer.write(',');
+            long departmentId = rs.getLong(4);
+            writer.write(rs.wasNull() ? "" : Long.toString(departmentId));
+            writer.write(',');
+            writer.write(csvField(rs.getString(5)));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    public void exportNdjson(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            streamRows(rs -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong(1));
+                generator.writeStringField("name", rs.getString(2));
+                generator.writeStringField("role", rs.getString(3));
+                long departmentId = rs.getLong(4);
+                if (rs.wasNull()) {
+                    generator.writeNullField("departmentId");
+                } else {
+                    generator.writeNumberField("departmentId", departmentId);
+                }
+                generator.writeStringField("departmentName", rs.getString(5));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void streamRows(RowWriter rowWriter) throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Connector/J only streams with Integer.MIN_VALUE (or useCursorFetch); otherwise it reads every row up front
+                boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+                statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+                return statement;
+            }, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    cancel(rs, e);
+                    throw new UncheckedIOException(e); // Stops reading; the cursor is closed on the way out
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void cancel(ResultSet rs, IOException writeFailure) {
+        try {
+            rs.getStatement().cancel(); // Stops the query on the server, so closing has nothing left to drain
+        } catch (SQLException e) {
+            writeFailure.addSuppressed(e);
+        }
+    }
+
+    // Quotes a CSV field when it contains a separator, quote or line break
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
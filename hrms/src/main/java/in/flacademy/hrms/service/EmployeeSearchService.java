@@ -0,0 +1,171 @@
+package in.flacademy.hrms.service;
+
+import in.flacademy.hrms.model.EmployeeSearchHit;
+import in.flacademy.hrms.search.EmployeeSearchIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Keeps the in-process employee search index in step with the database. Service writes are applied
+// once their transaction commits. A rebuild loads a fresh index on a background thread while
+// queries keep reading the current one. Writes that land during the rebuild are replayed onto the
+// fresh index before it is swapped in. The periodic rebuild also repairs the rare case where two
+// commits touching the same employee were applied out of order.
+@Service
+public class EmployeeSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchService.class);
+
+    public static final int MAX_RESULTS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final long rebuildIntervalMillis;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object writeLock = new Object();
+    private volatile EmployeeSearchIndex index = new EmployeeSearchIndex();
+    private volatile boolean ready;
+    private List<Consumer<EmployeeSearchIndex>> journal; // Writes seen during a rebuild; guarded by writeLock
+
+    public EmployeeSearchService(JdbcTemplate jdbcTemplate,
+                                 @Value("${hrms.search.fetch-size:1000}") int fetchSize,
+                                 @Value("${hrms.search.rebuild-interval:6h}") Duration rebuildInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.rebuildIntervalMillis = rebuildInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        rebuilder.scheduleWithFixedDelay(this::rebuild, rebuildIntervalMillis, rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready; // True once the first build has finished
+    }
+
+    // Ranked matches for the query, or null while the first build is still running
+    public List<EmployeeSearchHit> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        return ready ? index.search(query, limit) : null;
+    }
+
+    // Starts a background rebuild; false if one is already running
+    public boolean rebuild() {
+        synchronized (writeLock) {
+            if (journal != null) {
+                return false;
+            }
+            journal = new ArrayList<>();
+        }
+        rebuilder.execute(this::runRebuild);
+        return true;
+    }
+
+    public void employeeSaved(Long id, String name, String role, Long departmentId) {
+        afterCommit(index -> index.putEmployee(id, name, role, departmentId));
+    }
+
+    public void employeesMoved(Collection<Long> ids, Long departmentId) {
+        List<Long> moved = List.copyOf(ids);
+        afterCommit(index -> moved.forEach(id -> index.moveEmployee(id, departmentId)));
+    }
+
+    public void employeesDeleted(Collection<Long> ids) {
+        List<Long> deleted = List.copyOf(ids);
+        afterCommit(index -> deleted.forEach(index::removeEmployee));
+    }
+
+    public void departmentSaved(Long id, String name) {
+        afterCommit(index -> index.putDepartment(id, name));
+    }
+
+    public void departmentDeleted(Long id) {
+        afterCommit(index -> index.removeDepartment(id));
+    }
+
+    private void runRebuild() {
+        EmployeeSearchIndex fresh = new EmployeeSearchIndex();
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.query("SELECT id, name FROM department", (RowCallbackHandler) rs -> fresh.putDepartment(rs.getLong(1), rs.getString(2)));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT id, name, role, department_id FROM employee");
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                long departmentId = rs.getLong(4);
+                fresh.putEmployee(rs.getLong(1), rs.getString(2), rs.getString(3), rs.wasNull() ? null : departmentId);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Employee search index rebuild failed; keeping the current index", e);
+            synchronized (writeLock) {
+                journal = null;
+            }
+            return;
+        }
+        synchronized (writeLock) {
+            journal.forEach(write -> write.accept(fresh)); // Each write carries full values, so replaying is safe
+            journal = null;
+            index = fresh;
+            ready = true;
+        }
+        log.info("Indexed {} employees for search in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void afterCommit(Consumer<EmployeeSearchIndex> write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+        // A rolled-back write never reaches the index
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+        });
+    }
+
+    private void apply(Consumer<EmployeeSearchIndex> write) {
+        synchronized (writeLock) {
+            write.accept(index);
+            if (journal != null) {
+                journal.add(write);
+            }
+        }
+    }
+}
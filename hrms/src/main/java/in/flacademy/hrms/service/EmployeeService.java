@@ -1,41 +1,322 @@
 package in.flacademy.hrms.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.flacademy.hrms.model.BulkItemResult;
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.DepartmentTransfer;
 import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.model.EmployeePage;
+import in.flacademy.hrms.repository.DepartmentRepository;
 import in.flacademy.hrms.repository.EmployeeRepository;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class EmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_ITEMS = 100_000;
+
+    // Ids per IN (...) list in bulk statements
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    // Directory sort orders; each ends with id so the keyset is unique
+    private static final Map<String, List<String>> SORT_KEYS = Map.of(
+            "id", List.of("id"),
+            "name", List.of("name", "id"),
+            "role", List.of("role", "name", "id"));
+
     private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final ChangeEventService changeEventService;
+    private final EmployeeSearchService employeeSearchService;
+    private final ObjectMapper objectMapper;
+    private final int listLimit;
 
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, DepartmentRepository departmentRepository,
+                           ChangeEventService changeEventService, EmployeeSearchService employeeSearchService,
+                           ObjectMapper objectMapper,
+                           @Value("${hrms.directory.list-limit:1000}") int listLimit) {
         this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.changeEventService = changeEventService;
+        this.employeeSearchService = employeeSearchService;
+        this.objectMapper = objectMapper;
+        this.listLimit = Math.min(listLimit, MAX_PAGE_SIZE);
     }
 
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    public EmployeePage getFirstEmployees() {
+        // The unpaged listing: at most list-limit employees in id order, with a cursor for the rest
+        return getEmployeePage(null, null, "id", "asc", null, listLimit, null);
+    }
+
+    public EmployeePage getEmployeePage(String role, Long departmentId, String sort, String direction,
+                                        Integer page, int size, String cursor) {
+        // Reads size + 1 rows from an index range; no COUNT query, so the cost does not grow with the org
+        List<String> keys = SORT_KEYS.get(sort);
+        if (keys == null) {
+            throw new IllegalArgumentException("sort must be one of id, name, role");
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("direction must be asc or desc"));
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page != null && cursor != null) {
+            throw new IllegalArgumentException("Use either page or cursor, not both");
+        }
+        if (page != null && page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+
+        List<Specification<Employee>> filters = new ArrayList<>();
+        if (role != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("role"), role));
+        }
+        if (departmentId != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("department").get("id"), departmentId));
+        }
+        if (cursor != null) {
+            filters.add(after(keys, decodeCursor(cursor, keys), sortDirection)); // Keyset: WHERE (name, id) > (?, ?)
+        }
+        // Offset positions point at the last row already read
+        ScrollPosition position = page == null || page == 0 ? ScrollPosition.offset() : ScrollPosition.offset((long) page * size - 1);
+        Sort order = Sort.by(sortDirection, keys.toArray(String[]::new));
+
+        Window<Employee> window = employeeRepository.findBy(Specification.allOf(filters),
+                query -> query.sortBy(order).limit(size).scroll(position));
+        List<Employee> items = window.getContent();
+        String nextCursor = window.hasNext() && !items.isEmpty() ? encodeCursor(items.get(items.size() - 1), keys) : null;
+        return new EmployeePage(items, nextCursor);
     }
 
     public Employee getEmployeeById(Long id) {
         return employeeRepository.findById(id).orElseThrow(() -> new RuntimeException("Employee not found"));
     }
 
+    @Transactional
     public Employee createEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        if (employee.getDepartmentId() != null) {
+            employee.setDepartment(getDepartment(employee.getDepartmentId()));
+        }
+        Employee saved = employeeRepository.save(employee);
+        changeEventService.record("employee", "created", saved.getId(), changePayload(saved));
+        indexForSearch(saved);
+        return saved;
     }
 
+    @Transactional
     public Employee updateEmployee(Long id, Employee employeeDetails) {
         Employee employee = getEmployeeById(id);
         employee.setName(employeeDetails.getName());
         employee.setRole(employeeDetails.getRole());
-//        employee.setDepartment(employeeDetails.getDepartment());
-        return employeeRepository.save(employee);
+        if (employeeDetails.getDepartmentId() != null) { // Leaving departmentId out keeps the current department
+            employee.setDepartment(getDepartment(employeeDetails.getDepartmentId()));
+        }
+        Employee saved = employeeRepository.save(employee);
+        changeEventService.record("employee", "updated", saved.getId(), changePayload(saved));
+        indexForSearch(saved);
+        return saved;
     }
 
+    @Transactional
+    public List<BulkItemResult> createEmployees(List<Employee> employees) {
+        // Validates every item up front, then inserts the valid ones as JDBC batches in one transaction
+        if (employees.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ITEMS + " employees per request");
+        }
+        Set<Long> departmentIds = new HashSet<>();
+        for (Employee employee : employees) {
+            if (employee != null && employee.getDepartmentId() != null) {
+                departmentIds.add(employee.getDepartmentId());
+            }
+        }
+        Set<Long> existingDepartments = departmentIds.isEmpty()
+                ? Set.of() : new HashSet<>(departmentRepository.findExistingIds(departmentIds));
+
+        List<BulkItemResult> results = new ArrayList<>(employees.size());
+        List<Employee> valid = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            String error = null;
+            if (employee == null || employee.getName() == null || employee.getName().isBlank()) {
+                error = "name is required";
+            } else if (employee.getDepartmentId() != null && !existingDepartments.contains(employee.getDepartmentId())) {
+                error = "Department not found: " + employee.getDepartmentId();
+            }
+            if (error == null) {
+                valid.add(employee);
+                results.add(new BulkItemResult(i, null, "created", null));
+            } else {
+                results.add(new BulkItemResult(i, null, "rejected", error));
+            }
+        }
+
+        List<Long> ids = employeeRepository.insertAll(valid);
+        List<ChangeEventService.Change> changes = new ArrayList<>(ids.size());
+        for (int i = 0; i < valid.size(); i++) {
+            valid.get(i).setId(ids.get(i));
+            changes.add(new ChangeEventService.Change(ids.get(i), changePayload(valid.get(i))));
+            indexForSearch(valid.get(i));
+        }
+        changeEventService.recordAll("employee", "created", changes);
+        int next = 0;
+        for (BulkItemResult result : results) {
+            if (result.getError() == null) {
+                result.setId(ids.get(next++));
+            }
+        }
+        return results;
+    }
+
+    @Transactional
+    public List<BulkItemResult> transferEmployees(DepartmentTransfer transfer) {
+        // One UPDATE ... WHERE id IN (...) per chunk of ids instead of loading and saving each employee
+        if (transfer.getDepartmentId() == null || transfer.getEmployeeIds() == null) {
+            throw new IllegalArgumentException("departmentId and employeeIds are required");
+        }
+        if (transfer.getEmployeeIds().size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ITEMS + " employees per request");
+        }
+        Department department = departmentRepository.findById(transfer.getDepartmentId())
+                .orElseThrow(() -> new IllegalArgumentException("Department not found: " + transfer.getDepartmentId()));
+
+        List<Long> requested = transfer.getEmployeeIds();
+        Set<Long> existing = new HashSet<>();
+        List<Long> distinct = requested.stream().filter(id -> id != null).distinct().toList();
+        for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size()));
+            existing.addAll(employeeRepository.findExistingIds(chunk));
+            employeeRepository.moveToDepartment(department, chunk);
+        }
+        List<ChangeEventService.Change> changes = new ArrayList<>(existing.size());
+        for (Long id : distinct) {
+            if (existing.contains(id)) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("id", id);
+                payload.put("departmentId", department.getId());
+                changes.add(new ChangeEventService.Change(id, payload));
+            }
+        }
+        changeEventService.recordAll("employee", "updated", changes);
+        employeeSearchService.employeesMoved(existing, department.getId());
+
+        List<BulkItemResult> results = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            Long id = requested.get(i);
+            if (existing.contains(id)) {
+                results.add(new BulkItemResult(i, id, "moved", null));
+            } else {
+                results.add(new BulkItemResult(i, id, "rejected", "Employee not found"));
+            }
+        }
+        return results;
+    }
+
+    private Department getDepartment(Long id) {
+        return departmentRepository.findById(id).orElseThrow(() -> new RuntimeException("Department not found"));
+    }
+
+    @Transactional
     public void deleteEmployee(Long id) {
-        employeeRepository.deleteById(id);
+        employeeRepository.findById(id).ifPresent(employee -> {
+            employeeRepository.delete(employee);
+            changeEventService.record("employee", "deleted", id, null);
+            employeeSearchService.employeesDeleted(List.of(id));
+        });
+    }
+
+    private void indexForSearch(Employee employee) {
+        employeeSearchService.employeeSaved(employee.getId(), employee.getName(), employee.getRole(), employee.getDepartmentId());
+    }
+
+    // Fields written by a create or update, as recorded in the change feed
+    static Map<String, Object> changePayload(Employee employee) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", employee.getId());
+        payload.put("name", employee.getName());
+        payload.put("role", employee.getRole());
+        payload.put("departmentId", employee.getDepartmentId());
+        return payload;
+    }
+
+    // Rows strictly after the cursor in sort order. Written out by hand because NULL names and roles
+    // sort first (the MySQL and H2 default), which a plain (a, b) > (?, ?) comparison gets wrong.
+    private static Specification<Employee> after(List<String> keys, List<Object> values, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                Path<Comparable<Object>> path = root.get(keys.get(i));
+                @SuppressWarnings("unchecked")
+                Comparable<Object> value = (Comparable<Object>) values.get(i);
+                Predicate beyond;
+                if (direction.isAscending()) {
+                    beyond = value == null ? cb.isNotNull(path) : cb.greaterThan(path, value);
+                } else {
+                    beyond = value == null ? cb.disjunction() : cb.or(cb.lessThan(path, value), cb.isNull(path));
+                }
+                List<Predicate> branch = new ArrayList<>(equalSoFar);
+                branch.add(beyond);
+                alternatives.add(cb.and(branch.toArray(Predicate[]::new)));
+                equalSoFar.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+            return cb.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+
+    // The cursor is the last row's sort key values as a URL-safe Base64 JSON array
+    private String encodeCursor(Employee last, List<String> keys) {
+        List<Object> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            values.add(switch (key) {
+                case "name" -> last.getName();
+                case "role" -> last.getRole();
+                default -> last.getId();
+            });
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Object> decodeCursor(String cursor, List<String> keys) {
+        List<?> values;
+        try {
+            values = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), List.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (values.size() != keys.size()) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        List<Object> position = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values.get(i);
+            if (keys.get(i).equals("id") ? !(value instanceof Number) : value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            position.add(value instanceof Number number ? number.longValue() : value);
+        }
+        return position;
     }
 }
@@ -0,0 +1,165 @@
+package in.flacademy.hrms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.flacademy.hrms.model.ChangeEvent;
+import in.flacademy.hrms.repository.ChangeEventRepository;
+import in.flacademy.hrms.service.ChangeStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ChangeFeedTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ChangeEventRepository changeEventRepository;
+
+	@Autowired
+	private ChangeStreamService changeStreamService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void recordsWritesInCommitOrder() throws Exception {
+		long since = waitForStampedSequence();
+
+		long departmentId = create("/api/v1/departments", "{\"name\": \"Engineering\"}");
+		long employeeId = create("/api/v1/employees", "{\"name\": \"Ann\", \"role\": \"Engineer\", \"departmentId\": " + departmentId + "}");
+		mockMvc.perform(put("/api/v1/employees/" + employeeId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"Ann\", \"role\": \"Lead\"}")).andExpect(status().isOk());
+		mockMvc.perform(delete("/api/v1/employees/" + employeeId)).andExpect(status().isOk());
+
+		List<JsonNode> events = readChanges(since, 4);
+		assertThat(events).extracting(event -> event.get("entityType").asText() + "." + event.get("action").asText())
+				.containsExactly("department.created", "employee.created", "employee.updated", "employee.deleted");
+		assertThat(events.get(2).get("payload").get("role").asText()).isEqualTo("Lead");
+		assertThat(events.get(3).get("payload").isNull()).isTrue();
+		assertThat(events).extracting(event -> event.get("sequence").asLong())
+				.containsExactly(since + 1, since + 2, since + 3, since + 4);
+	}
+
+	@Test
+	void failedWritesRecordNothing() throws Exception {
+		long since = waitForStampedSequence();
+
+		try {
+			mockMvc.perform(post("/api/v1/employees").contentType(MediaType.APPLICATION_JSON)
+					.content("{\"name\": \"Ghost\", \"departmentId\": 999999}"));
+		} catch (Exception expected) {
+			// Department not found surfaces as a server error
+		}
+		create("/api/v1/departments", "{\"name\": \"Sales\"}");
+
+		List<JsonNode> events = readChanges(since, 1);
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).get("entityType").asText()).isEqualTo("department");
+	}
+
+	@Test
+	void streamsChangesOverServerSentEvents() throws Exception {
+		long since = waitForStampedSequence();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/changes/stream"))
+				.header("Last-Event-ID", Long.toString(since))
+				.build();
+		HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+		create("/api/v1/departments", "{\"name\": \"Finance\"}");
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+			List<String> lines = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null && !line.startsWith("data:")) {
+				lines.add(line);
+			}
+			assertThat(lines).contains("id:" + (since + 1), "event:department.created");
+			assertThat(objectMapper.readTree(line.substring(5)).get("payload").get("name").asText()).isEqualTo("Finance");
+		}
+	}
+
+	@Test
+	void purgesRelayedEventsPastTheRetentionButKeepsTheNewest() throws Exception {
+		create("/api/v1/departments", "{\"name\": \"Legal\"}");
+		create("/api/v1/departments", "{\"name\": \"Audit\"}");
+		long last = waitForStampedSequence();
+		jdbcTemplate.update("UPDATE change_event SET occurred_at = ?", Timestamp.from(Instant.now().minus(Duration.ofDays(30))));
+
+		assertThat(changeStreamService.purgeExpired()).isPositive();
+
+		assertThat(changeEventRepository.findAll()).extracting(ChangeEvent::getSequence).containsExactly(last);
+		long next = create("/api/v1/departments", "{\"name\": \"Tax\"}");
+		assertThat(readChanges(last, 1)).extracting(event -> event.get("entityId").asLong()).containsExactly(next);
+		assertThat(changeEventRepository.findLastSequence()).isEqualTo(last + 1);
+	}
+
+	private long create(String url, String body) throws Exception {
+		String response = mockMvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asLong();
+	}
+
+	// Events from earlier tests may still be waiting for the relay; start after all of them
+	private long waitForStampedSequence() throws InterruptedException {
+		for (int i = 0; i < 100 && changeEventRepository.findAll().stream().anyMatch(event -> event.getSequence() == null); i++) {
+			Thread.sleep(50);
+		}
+		return changeEventRepository.findLastSequence();
+	}
+
+	private List<JsonNode> readChanges(long since, int expected) throws Exception {
+		List<JsonNode> events = new ArrayList<>();
+		for (int attempt = 0; attempt < 100 && events.size() < expected; attempt++) {
+			Thread.sleep(50);
+			events.clear();
+			String body = mockMvc.perform(get("/api/v1/changes?since=" + since))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			objectMapper.readTree(body).get("events").forEach(events::add);
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,129 @@
+package in.flacademy.hrms;
+
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class DepartmentCacheTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Department department;
+
+	@BeforeEach
+	void seed() {
+		employeeRepository.deleteAll();
+		departmentRepository.deleteAll();
+		entityManagerFactory.getCache().evictAll();
+		department = departmentRepository.save(new Department(null, "Engineering"));
+		employeeRepository.save(new Employee(null, "Ann", "Engineer", department));
+	}
+
+	@Test
+	void employeesReadTheirDepartmentFromTheCache() throws Exception {
+		QueryCounter counter = new QueryCounter(entityManagerFactory);
+		readDepartmentNameThroughEmployee(); // Warms the cache
+
+		long queries = counter.count(this::readDepartmentNameThroughEmployee);
+
+		assertThat(queries).isEqualTo(1); // The employee only; the department comes from the cache
+		mockMvc.perform(get("/actuator/hibernatecache"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.secondLevelCache.hits").value(1));
+	}
+
+	@Test
+	void cachedLookupQueriesAreServedWithoutSql() throws Exception {
+		QueryCounter counter = new QueryCounter(entityManagerFactory);
+		departmentRepository.findExistingIds(List.of(department.getId()));
+
+		long queries = counter.count(() -> departmentRepository.findExistingIds(List.of(department.getId())));
+
+		assertThat(queries).isZero();
+	}
+
+	@Test
+	void updateEvictsTheCachedDepartment() throws Exception {
+		readDepartmentNameThroughEmployee();
+
+		mockMvc.perform(put("/api/v1/departments/" + department.getId()).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Platform\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(readDepartmentNameThroughEmployee()).isEqualTo("Platform");
+	}
+
+	@Test
+	void renameReadsTheDepartmentFromTheCache() throws Exception {
+		readDepartmentNameThroughEmployee();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long hits = statistics.getSecondLevelCacheHitCount();
+
+		mockMvc.perform(put("/api/v1/departments/" + department.getId()).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Platform\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+		assertThat(entityManagerFactory.getCache().contains(Department.class, department.getId())).isTrue();
+	}
+
+	@Test
+	void deleteRemovesTheCachedDepartment() throws Exception {
+		readDepartmentNameThroughEmployee();
+		assertThat(entityManagerFactory.getCache().contains(Department.class, department.getId())).isTrue();
+
+		mockMvc.perform(delete("/api/v1/departments/" + department.getId())).andExpect(status().isOk());
+
+		// READ_WRITE leaves a soft lock under the key, so the row can no longer be read from the cache
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long hits = statistics.getSecondLevelCacheHitCount();
+		assertThat(departmentRepository.findById(department.getId())).isEmpty();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hits);
+	}
+
+	private String readDepartmentNameThroughEmployee() {
+		return transactionTemplate.execute(status -> employeeRepository.findAll().get(0).getDepartment().getName());
+	}
+
+}
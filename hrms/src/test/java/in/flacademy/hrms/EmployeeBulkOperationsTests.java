@@ -0,0 +1,111 @@
+package in.flacademy.hrms;
+
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class EmployeeBulkOperationsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	private Department engineering;
+	private Department sales;
+
+	@BeforeEach
+	void seed() {
+		employeeRepository.deleteAll();
+		departmentRepository.deleteAll();
+		engineering = departmentRepository.save(new Department(null, "Engineering"));
+		sales = departmentRepository.save(new Department(null, "Sales"));
+	}
+
+	@Test
+	void createsValidItemsAndReportsRejectedOnes() throws Exception {
+		String body = """
+				[{"name": "Ann", "role": "Engineer", "departmentId": %d},
+				 {"role": "Engineer"},
+				 {"name": "Ben", "role": "Manager", "departmentId": 999999},
+				 {"name": "Cy", "role": "Manager"}]
+				""".formatted(engineering.getId());
+
+		mockMvc.perform(post("/api/v1/employees/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("created"))
+				.andExpect(jsonPath("$[0].id").isNumber())
+				.andExpect(jsonPath("$[1].status").value("rejected"))
+				.andExpect(jsonPath("$[2].error").value("Department not found: 999999"))
+				.andExpect(jsonPath("$[3].status").value("created"));
+
+		List<Employee> saved = employeeRepository.findAllWithDepartment();
+		assertThat(saved).extracting(Employee::getName).containsExactly("Ann", "Cy");
+		assertThat(saved.get(0).getDepartmentId()).isEqualTo(engineering.getId());
+	}
+
+	@Test
+	void transfersEmployeesAndReportsUnknownIds() throws Exception {
+		Employee ann = employeeRepository.save(new Employee(null, "Ann", "Engineer", engineering));
+		Employee ben = employeeRepository.save(new Employee(null, "Ben", "Engineer", engineering));
+		String body = """
+				{"departmentId": %d, "employeeIds": [%d, 999999, %d]}
+				""".formatted(sales.getId(), ann.getId(), ben.getId());
+
+		mockMvc.perform(post("/api/v1/employees/transfer").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("moved"))
+				.andExpect(jsonPath("$[1].status").value("rejected"))
+				.andExpect(jsonPath("$[2].status").value("moved"));
+
+		assertThat(employeeRepository.findAllWithDepartment())
+				.extracting(Employee::getDepartmentId).containsOnly(sales.getId());
+	}
+
+	@Test
+	void rejectsTransferToUnknownDepartment() throws Exception {
+		mockMvc.perform(post("/api/v1/employees/transfer").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"departmentId\": 999999, \"employeeIds\": [1]}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void updateAppliesDepartmentChanges() throws Exception {
+		Employee ann = employeeRepository.save(new Employee(null, "Ann", "Engineer", engineering));
+
+		mockMvc.perform(put("/api/v1/employees/" + ann.getId()).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Ann\", \"role\": \"Lead\", \"departmentId\": " + sales.getId() + "}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.departmentId").value(sales.getId()));
+
+		assertThat(employeeRepository.findAllWithDepartment().get(0).getDepartmentId()).isEqualTo(sales.getId());
+	}
+
+}
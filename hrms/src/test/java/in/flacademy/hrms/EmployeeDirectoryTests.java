@@ -0,0 +1,131 @@
+package in.flacademy.hrms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"hrms.directory.list-limit=5"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class EmployeeDirectoryTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	private Long engineeringId;
+
+	@BeforeEach
+	void seed() {
+		employeeRepository.deleteAll();
+		departmentRepository.deleteAll();
+		Department engineering = departmentRepository.save(new Department(null, "Engineering"));
+		Department sales = departmentRepository.save(new Department(null, "Sales"));
+		engineeringId = engineering.getId();
+		// Duplicate names make the id tie-breaker part of the keyset
+		String[] names = {"Dana", "Alex", "Chris", "Alex", "Bea", "Eve", "Chris"};
+		for (int i = 0; i < names.length; i++) {
+			employeeRepository.save(new Employee(null, names[i], i % 2 == 0 ? "Engineer" : "Manager",
+					i < 4 ? engineering : sales));
+		}
+	}
+
+	@Test
+	void walksTheDirectoryWithCursorsInSortOrder() throws Exception {
+		List<String> names = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = read("/api/v1/employees/page?sort=name&size=3" + (cursor == null ? "" : "&cursor=" + cursor));
+			page.get("items").forEach(item -> names.add(item.get("name").asText()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(names).containsExactly("Alex", "Alex", "Bea", "Chris", "Chris", "Dana", "Eve");
+		assertThat(pages).isEqualTo(3);
+	}
+
+	@Test
+	void filtersByRoleAndDepartmentAndSortsDescending() throws Exception {
+		JsonNode page = read("/api/v1/employees/page?role=Engineer&departmentId=" + engineeringId + "&sort=name&direction=desc");
+
+		List<String> names = new ArrayList<>();
+		page.get("items").forEach(item -> names.add(item.get("name").asText()));
+		assertThat(names).containsExactly("Dana", "Chris");
+		assertThat(page.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void servesOffsetPages() throws Exception {
+		JsonNode page = read("/api/v1/employees/page?sort=name&size=2&page=2");
+
+		List<String> names = new ArrayList<>();
+		page.get("items").forEach(item -> names.add(item.get("name").asText()));
+		assertThat(names).containsExactly("Chris", "Dana");
+	}
+
+	@Test
+	void capsTheUnpagedListingAndLinksToTheRest() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/v1/employees"))
+				.andExpect(status().isOk())
+				.andReturn();
+		JsonNode first = objectMapper.readTree(result.getResponse().getContentAsString());
+		assertThat(first.isArray()).isTrue();
+		assertThat(first.size()).isEqualTo(5);
+		assertThat(result.getResponse().getHeader("Deprecation")).isEqualTo("true");
+
+		Matcher next = Pattern.compile("<([^>]+)>; rel=\"next\"").matcher(result.getResponse().getHeader(HttpHeaders.LINK));
+		assertThat(next.find()).isTrue();
+		JsonNode rest = read(next.group(1));
+		assertThat(rest.get("items").size()).isEqualTo(2);
+		assertThat(rest.get("items").get(0).get("id").asLong()).isGreaterThan(first.get(4).get("id").asLong());
+		assertThat(rest.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void rejectsBadParameters() throws Exception {
+		mockMvc.perform(get("/api/v1/employees/page?sort=salary")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/v1/employees/page?size=0")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/v1/employees/page?sort=role&cursor=WzFd")).andExpect(status().isBadRequest());
+	}
+
+	private JsonNode read(String url) throws Exception {
+		String body = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+}
@@ -0,0 +1,149 @@
+package in.flacademy.hrms;
+
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import in.flacademy.hrms.service.EmployeeExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class EmployeeExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeExportService employeeExportService;
+
+	private Department engineering;
+
+	@BeforeEach
+	void seed() {
+		employeeRepository.deleteAll();
+		departmentRepository.deleteAll();
+		engineering = departmentRepository.save(new Department(null, "R&D, Platform"));
+	}
+
+	@Test
+	void exportsCsvWithQuotedFields() throws Exception {
+		Employee ann = employeeRepository.save(new Employee(null, "Ann \"A\" Lee", "Engineer", engineering));
+		Employee ben = employeeRepository.save(new Employee(null, "Ben", null, null));
+
+		String csv = export("csv");
+
+		assertThat(csv).isEqualTo("id,name,role,departmentId,departmentName\n"
+				+ ann.getId() + ",\"Ann \"\"A\"\" Lee\",Engineer," + engineering.getId() + ",\"R&D, Platform\"\n"
+				+ ben.getId() + ",Ben,,,\n");
+	}
+
+	@Test
+	void exportsOneJsonObjectPerLine() throws Exception {
+		Employee ann = employeeRepository.save(new Employee(null, "Ann", "Engineer", engineering));
+
+		String ndjson = export("ndjson");
+
+		assertThat(ndjson).isEqualTo("{\"id\":" + ann.getId() + ",\"name\":\"Ann\",\"role\":\"Engineer\",\"departmentId\":"
+				+ engineering.getId() + ",\"departmentName\":\"R&D, Platform\"}\n");
+	}
+
+	@Test
+	void exportGetsItsOwnAsyncTimeout() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/v1/employees/export?format=csv"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+		mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+	}
+
+	@Test
+	void gzipsTheExportForClientsThatAcceptIt() throws Exception {
+		Employee ann = employeeRepository.save(new Employee(null, "Ann", "Engineer", engineering));
+
+		MvcResult started = mockMvc.perform(get("/api/v1/employees/export?format=csv")
+						.header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+		assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(result.getResponse().getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		byte[] csv = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+		assertThat(new String(csv, StandardCharsets.UTF_8)).endsWith(ann.getId() + ",Ann,Engineer," + engineering.getId() + ",\"R&D, Platform\"\n");
+
+		MvcResult refused = mockMvc.perform(get("/api/v1/employees/export?format=csv").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertThat(mockMvc.perform(asyncDispatch(refused)).andReturn().getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+	}
+
+	@Test
+	void aFailedWriteStopsTheExport() {
+		List<Employee> employees = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			employees.add(new Employee(null, "Employee " + i, "Engineer", engineering));
+		}
+		employeeRepository.saveAll(employees);
+		OutputStream disconnected = new OutputStream() {
+			private int written;
+
+			@Override
+			public void write(int b) throws IOException {
+				if (++written > 1024) {
+					throw new IOException("Broken pipe");
+				}
+			}
+		};
+
+		assertThatThrownBy(() -> employeeExportService.exportCsv(disconnected))
+				.isInstanceOf(IOException.class)
+				.hasMessage("Broken pipe");
+		assertThat(employeeRepository.count()).isEqualTo(5000); // The connection is usable again
+	}
+
+	private String export(String format) throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/v1/employees/export?format=" + format))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+}
@@ -0,0 +1,125 @@
+package in.flacademy.hrms;
+
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.DepartmentTransfer;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.model.EmployeeSearchHit;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import in.flacademy.hrms.service.DepartmentService;
+import in.flacademy.hrms.service.EmployeeSearchService;
+import in.flacademy.hrms.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class EmployeeSearchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private DepartmentService departmentService;
+
+	@Autowired
+	private EmployeeSearchService employeeSearchService;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void awaitIndex() throws InterruptedException {
+		for (int i = 0; i < 100 && !employeeSearchService.isReady(); i++) {
+			Thread.sleep(50);
+		}
+	}
+
+	@Test
+	void ranksNameMatchesAboveRoleAndDepartmentMatches() throws Exception {
+		Department quantlytics = departmentService.createDepartment(new Department(null, "Quantlytics"));
+		Employee marisol = employeeService.createEmployee(new Employee(null, "Marisol Quenby", "Analyst", quantlytics));
+		Employee ivo = employeeService.createEmployee(new Employee(null, "Ivo Park", "Quenby Liaison", null));
+
+		assertThat(ids(employeeSearchService.search("quenby", 10))).containsExactly(marisol.getId(), ivo.getId());
+		assertThat(ids(employeeSearchService.search("Quen", 10))).containsExactly(marisol.getId(), ivo.getId());
+		assertThat(ids(employeeSearchService.search("quenbu", 10))).containsExactly(marisol.getId(), ivo.getId()); // One typo
+		assertThat(ids(employeeSearchService.search("quantlitics", 10))).containsExactly(marisol.getId());
+		assertThat(ids(employeeSearchService.search("marisol analyst", 10))).containsExactly(marisol.getId());
+		assertThat(employeeSearchService.search("marisol liaison", 10)).isEmpty(); // Every word has to match
+
+		mockMvc.perform(get("/api/v1/employees/search").param("q", "quenby").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].name").value("Marisol Quenby"))
+				.andExpect(jsonPath("$[0].departmentName").value("Quantlytics"));
+		mockMvc.perform(get("/api/v1/employees/search").param("q", "quenby").param("limit", "0"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void followsUpdatesTransfersRenamesAndDeletes() {
+		Department logistics = departmentService.createDepartment(new Department(null, "Logistics"));
+		Department treasury = departmentService.createDepartment(new Department(null, "Treasury"));
+		Employee odile = employeeService.createEmployee(new Employee(null, "Odile Varga", "Clerk", logistics));
+
+		Employee details = new Employee(null, "Odile Varga-Nemeth", "Controller", null);
+		employeeService.updateEmployee(odile.getId(), details);
+		assertThat(ids(employeeSearchService.search("nemeth controller", 10))).containsExactly(odile.getId());
+		assertThat(employeeSearchService.search("clerk", 10)).extracting(EmployeeSearchHit::getId).doesNotContain(odile.getId());
+
+		employeeService.transferEmployees(transfer(treasury.getId(), odile.getId()));
+		assertThat(ids(employeeSearchService.search("odile treasury", 10))).containsExactly(odile.getId());
+
+		departmentService.updateDepartment(treasury.getId(), new Department(null, "Finance Operations"));
+		assertThat(ids(employeeSearchService.search("odile finance", 10))).containsExactly(odile.getId());
+		assertThat(employeeSearchService.search("odile treasury", 10)).isEmpty();
+
+		employeeService.deleteEmployee(odile.getId());
+		assertThat(employeeSearchService.search("odile", 10)).isEmpty();
+	}
+
+	@Test
+	void rebuildPicksUpRowsWrittenOutsideTheService() throws Exception {
+		Employee bartholomew = employeeRepository.save(new Employee(null, "Bartholomew Ystad", "Archivist", null));
+		assertThat(employeeSearchService.search("ystad", 10)).isEmpty();
+
+		mockMvc.perform(post("/api/v1/employees/search/rebuild")).andExpect(status().isAccepted());
+		List<EmployeeSearchHit> hits = List.of();
+		for (int i = 0; i < 100 && hits.isEmpty(); i++) {
+			Thread.sleep(50);
+			hits = employeeSearchService.search("ystad", 10);
+		}
+		assertThat(ids(hits)).containsExactly(bartholomew.getId());
+	}
+
+	private static DepartmentTransfer transfer(Long departmentId, Long employeeId) {
+		DepartmentTransfer transfer = new DepartmentTransfer();
+		transfer.setDepartmentId(departmentId);
+		transfer.setEmployeeIds(List.of(employeeId));
+		return transfer;
+	}
+
+	private static List<Long> ids(List<EmployeeSearchHit> hits) {
+		return hits.stream().map(EmployeeSearchHit::getId).toList();
+	}
+}
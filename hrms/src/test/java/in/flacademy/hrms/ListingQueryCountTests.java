@@ -0,0 +1,123 @@
+package in.flacademy.hrms;
+
+import in.flacademy.hrms.model.Department;
+import in.flacademy.hrms.model.Employee;
+import in.flacademy.hrms.repository.DepartmentRepository;
+import in.flacademy.hrms.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fails if a listing endpoint goes back to one query per department
+@SpringBootTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ListingQueryCountTests {
+
+	private static final int DEPARTMENTS = 5;
+	private static final int EMPLOYEES_PER_DEPARTMENT = 4;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void seed() {
+		employeeRepository.deleteAll();
+		departmentRepository.deleteAll();
+		for (int d = 0; d < DEPARTMENTS; d++) {
+			Department department = departmentRepository.save(new Department(null, "Department " + d));
+			for (int e = 0; e < EMPLOYEES_PER_DEPARTMENT; e++) {
+				employeeRepository.save(new Employee(null, "Employee " + d + "-" + e, "Engineer", department));
+			}
+		}
+	}
+
+	@Test
+	void listsEmployeesInOneQuery() throws Exception {
+		long queries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/employees"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(DEPARTMENTS * EMPLOYEES_PER_DEPARTMENT)));
+
+		assertThat(queries).isEqualTo(1);
+	}
+
+	@Test
+	void pagesEmployeesInOneQuery() throws Exception {
+		long queries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/employees/page?size=100"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(DEPARTMENTS * EMPLOYEES_PER_DEPARTMENT)));
+
+		assertThat(queries).isEqualTo(1);
+	}
+
+	@Test
+	void listsDepartmentsWithTheirEmployeesInOneQuery() throws Exception {
+		long queries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/departments"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(DEPARTMENTS))
+				.andExpect(jsonPath("$[0].employees.length()").value(EMPLOYEES_PER_DEPARTMENT)));
+
+		assertThat(queries).isEqualTo(1);
+	}
+
+	@Test
+	void readsOneDepartmentWithItsEmployeesInOneQuery() throws Exception {
+		Long id = departmentRepository.findAll().get(0).getId();
+
+		long queries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/departments/" + id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees.length()").value(EMPLOYEES_PER_DEPARTMENT)));
+
+		assertThat(queries).isEqualTo(1);
+	}
+
+	@Test
+	void summarizesDepartmentsWithGroupedQueries() throws Exception {
+		long queries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/departments/summary"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(DEPARTMENTS))
+				.andExpect(jsonPath("$[0].employeeCount").value(EMPLOYEES_PER_DEPARTMENT))
+				.andExpect(jsonPath("$[0].employees").doesNotExist())
+				.andExpect(jsonPath("$[0].roles").doesNotExist()));
+		assertThat(queries).isEqualTo(1);
+
+		long byRoleQueries = new QueryCounter(entityManagerFactory).count(() -> mockMvc.perform(get("/api/v1/departments/summary?byRole=true"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].roles.Engineer").value(EMPLOYEES_PER_DEPARTMENT)));
+		assertThat(byRoleQueries).isEqualTo(2);
+	}
+
+	@Test
+	void pagesThroughADepartmentRoster() throws Exception {
+		Long id = departmentRepository.findAll().get(0).getId();
+
+		mockMvc.perform(get("/api/v1/departments/" + id + "/employees?size=3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(3))
+				.andExpect(jsonPath("$.items[0].name").value("Employee 0-0"))
+				.andExpect(jsonPath("$.nextCursor").isNotEmpty());
+	}
+
+}
@@ -0,0 +1,27 @@
+package in.flacademy.hrms;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+// Counts the JDBC statements Hibernate prepares while an action runs
+class QueryCounter {
+
+	private final Statistics statistics;
+
+	QueryCounter(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.statistics.setStatisticsEnabled(true);
+	}
+
+	long count(ThrowingRunnable action) throws Exception {
+		statistics.clear();
+		action.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+
+}
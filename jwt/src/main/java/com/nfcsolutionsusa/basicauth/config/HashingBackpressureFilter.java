@@ -0,0 +1,41 @@
+package com.nfcsolutionsusa.basicauth.config;
+
+import com.nfcsolutionsusa.basicauth.service.PasswordHashingBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Answers 429 with Retry-After when password hashing is saturated, whether it happened in an
+// authentication filter (HTTP Basic) or in a controller (/login, /register). Sits in front of
+// the authentication filters so both paths pass through it.
+public class HashingBackpressureFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            if (!isBusy(e) || response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", "1");
+        }
+    }
+
+    // Controller exceptions arrive wrapped in a ServletException
+    private static boolean isBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingBusyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
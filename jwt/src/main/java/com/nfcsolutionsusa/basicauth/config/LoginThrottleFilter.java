@@ -0,0 +1,147 @@
+package com.nfcsolutionsusa.basicauth.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nfcsolutionsusa.basicauth.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Login attempts (/login and any request carrying HTTP Basic credentials) are checked against
+// LoginThrottle for the client IP and the username before they reach authentication, so excess
+// attempts cost neither a user query nor a BCrypt check. Each attempt takes its tokens on the way in,
+// so a concurrent burst cannot get past capacity; attempts that do not end in 401 are refunded.
+// The IP is getRemoteAddr(); behind a proxy set server.forward-headers-strategy so it is the client's.
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGIN_BODY = 8192;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String userName = basicUserName(request);
+        boolean attempt = userName != null;
+        if (!attempt && "/login".equals(request.getServletPath())) {
+            byte[] body = request.getInputStream().readNBytes(MAX_LOGIN_BODY + 1);
+            if (body.length > MAX_LOGIN_BODY) {
+                response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value()); // Far more than a user name and password
+                return;
+            }
+            userName = jsonUserName(body);
+            request = new CachedBodyRequest(request, body); // The controller still reads the body
+            attempt = true;
+        }
+        if (!attempt) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String ip = request.getRemoteAddr();
+        LoginThrottle.Attempt admission = loginThrottle.tryAcquire(ip, userName);
+        if (!admission.admitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, (admission.waitNanos() + 999_999_999) / 1_000_000_000)));
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (response.getStatus() != HttpStatus.UNAUTHORIZED.value()) {
+            loginThrottle.refund(admission); // Credentials accepted; a request that threw keeps its tokens
+        }
+    }
+
+    private static String basicUserName(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon < 0 ? credentials : credentials.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            return ""; // Malformed; BasicAuthenticationFilter rejects it without hashing, but it still counts
+        }
+    }
+
+    private static String jsonUserName(byte[] body) {
+        try {
+            JsonNode userName = objectMapper.readTree(body).get("userName");
+            return userName != null && userName.isTextual() ? userName.asText() : null;
+        } catch (IOException | RuntimeException e) {
+            return null; // Throttled by IP only; the controller rejects the body
+        }
+    }
+
+    // Replays the login body the filter has already read in full
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] content) {
+            super(request);
+            ByteArrayInputStream in = new ByteArrayInputStream(content);
+            this.body = new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true; // Reads never block; everything is in memory
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Non-blocking readers get the whole body at once: it is already available
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+    }
+}
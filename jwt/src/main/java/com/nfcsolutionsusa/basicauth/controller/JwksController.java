@@ -0,0 +1,26 @@
+package com.nfcsolutionsusa.basicauth.controller;
+
+import com.nfcsolutionsusa.basicauth.service.JWTService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+public class JwksController {
+    @Autowired
+    private JWTService jwtService;
+
+    // Public keys for verifying this app's tokens; empty in HMAC mode, since secrets are never published
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtService.jwksJson());
+    }
+}
@@ -0,0 +1,28 @@
+package com.nfcsolutionsusa.basicauth.controller;
+
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
+import com.nfcsolutionsusa.basicauth.model.TokenRequest;
+import com.nfcsolutionsusa.basicauth.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class TokenController {
+    @Autowired
+    private UserService userService;
+
+    // Swaps a refresh token for a new access/refresh pair; 401 if it is invalid, expired or already used
+    @PostMapping("/token/refresh")
+    public TokenPair refresh(@RequestBody TokenRequest request) {
+        return userService.refresh(request.getToken());
+    }
+
+    @PostMapping("/token/revoke")
+    public ResponseEntity<Void> revoke(@RequestBody TokenRequest request) {
+        userService.revoke(request.getToken());
+        return ResponseEntity.noContent().build();
+    }
+}
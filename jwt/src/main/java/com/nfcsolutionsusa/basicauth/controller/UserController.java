@@ -1,5 +1,6 @@
 package com.nfcsolutionsusa.basicauth.controller;
 
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
 import com.nfcsolutionsusa.basicauth.model.User;
 import com.nfcsolutionsusa.basicauth.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +19,7 @@ public class UserController {
     }
 
     @GetMapping("/login")
-    public String login(@RequestBody User user) {
+    public TokenPair login(@RequestBody User user) {
         return userService.verify(user);
     }
 
@@ -27,4 +28,5 @@ public class UserController {
 
         return userService.listUsers();
     }
+
 }
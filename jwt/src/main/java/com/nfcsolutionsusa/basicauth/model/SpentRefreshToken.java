@@ -0,0 +1,42 @@
+package com.nfcsolutionsusa.basicauth.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// A refresh token (by jti) that has been used or revoked. Always inserted, never merged, so a second
+// insert of the same jti fails on the primary key, on whichever replica it happens.
+@Entity
+@Table(indexes = @Index(name = "idx_spent_refresh_token_expires_at", columnList = "expires_at"))
+public class SpentRefreshToken implements Persistable<String> {
+    @Id
+    private String jti;
+
+    private Instant expiresAt; // The row can go once the token has expired
+
+    protected SpentRefreshToken() {
+    }
+
+    public SpentRefreshToken(String jti, Instant expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.nfcsolutionsusa.basicauth.model;
+
+// Body of /token/refresh (a refresh token) and /token/revoke (either kind)
+public class TokenRequest {
+    private String token;
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -1,11 +1,14 @@
 package com.nfcsolutionsusa.basicauth.model;
 
+import com.nfcsolutionsusa.basicauth.service.UserCacheEvictor;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 
 @Entity
+@EntityListeners(UserCacheEvictor.class) // Keeps CachingUserDetailsService in step with the table
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
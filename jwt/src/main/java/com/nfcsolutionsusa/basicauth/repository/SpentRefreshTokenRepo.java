@@ -0,0 +1,17 @@
+package com.nfcsolutionsusa.basicauth.repository;
+
+import com.nfcsolutionsusa.basicauth.model.SpentRefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface SpentRefreshTokenRepo extends JpaRepository<SpentRefreshToken, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SpentRefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,62 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Short-lived, bounded cache in front of UserDetailsServiceImpl, used by both JwtFilter and the
+// DaoAuthenticationProvider. Concurrent misses for one user share a single query, and unknown
+// users are not cached. UserCacheEvictor drops a user whenever their row is written; the TTL bounds
+// how long another instance's change can go unseen.
+@Service
+@Primary
+public class CachingUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserDetailsService delegate;
+    private final Cache<String, UserDetails> users;
+
+    @Autowired
+    public CachingUserDetailsService(UserDetailsServiceImpl delegate,
+                                     @Value("${jwt.user-cache.max-size:10000}") long maxSize,
+                                     @Value("${jwt.user-cache.ttl:60s}") Duration ttl) {
+        this(delegate, maxSize, ttl, Ticker.systemTicker());
+    }
+
+    CachingUserDetailsService(UserDetailsService delegate, long maxSize, Duration ttl, Ticker ticker) {
+        this.delegate = delegate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
+        return users.get(userName, delegate::loadUserByUsername);
+    }
+
+    // Called after a login upgraded an outdated hash; the cached copy still holds the old one
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = delegate instanceof UserDetailsPasswordService passwords
+                ? passwords.updatePassword(user, newPassword)
+                : user;
+        users.invalidate(user.getUsername());
+        return updated;
+    }
+
+    public void evict(String userName) {
+        users.invalidate(userName);
+    }
+}
@@ -1,60 +1,151 @@
 package com.nfcsolutionsusa.basicauth.service;
 
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.nio.file.Path;
+import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+// Signs with the active key and verifies with the key named by the token's kid header.
+// HMAC keys come from jwt.signing-keys as "kid:base64Secret" pairs (at least 256 bits each). Setting
+// jwt.keystore.path instead signs with key pairs from a keystore: EC P-256 gives ES256, Ed25519
+// gives EdDSA. The public halves are served at /.well-known/jwks.json, and verifiers need only those.
+// jwt.active-kid selects the signing key. To rotate, add the new key, make it active, and remove the
+// old one once its tokens have expired. With jwt.jwks-uri set, kids this node does not hold are
+// looked up in the signer's JWKS. Without any configuration a random HMAC key is generated at
+// startup, as before. The keys and the parser are built once; both are immutable and thread-safe.
 @Service
 public class JWTService {
 
+    // token_use claim: only access tokens authenticate requests, only refresh tokens get new pairs
+    public static final String TOKEN_USE = "token_use";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
 
-    private String secretkey = "LH(*&akjhsdfllkj(*&(";
+    private final JwtKeySet keySet;
+    private final RemoteJwks remoteJwks;
+    private final JwtParser parser;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
 
     public JWTService() {
+        this("", "");
+    }
 
-        try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretkey = Base64.getEncoder().encodeToString(sk.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
+    public JWTService(String signingKeys, String activeKid) {
+        this(JwtKeySet.hmac(signingKeys, activeKid), null);
+    }
+
+    @Autowired
+    public JWTService(@Value("${jwt.signing-keys:}") String signingKeys,
+                      @Value("${jwt.keystore.path:}") String keystorePath,
+                      @Value("${jwt.keystore.type:PKCS12}") String keystoreType,
+                      @Value("${jwt.keystore.password:}") String keystorePassword,
+                      @Value("${jwt.active-kid:}") String activeKid,
+                      ObjectProvider<RemoteJwks> remoteJwks,
+                      @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+                      @Value("${jwt.refresh-token-ttl:14d}") Duration refreshTokenTtl) {
+        this(keystorePath.isEmpty()
+                        ? JwtKeySet.hmac(signingKeys, activeKid)
+                        : JwtKeySet.keystore(Path.of(keystorePath), keystoreType, keystorePassword.toCharArray(), activeKid),
+                remoteJwks.getIfAvailable(), accessTokenTtl, refreshTokenTtl);
+    }
+
+    public JWTService(JwtKeySet keySet, RemoteJwks remoteJwks) {
+        this(keySet, remoteJwks, Duration.ofMinutes(15), Duration.ofDays(14));
     }
 
+    public JWTService(JwtKeySet keySet, RemoteJwks remoteJwks, Duration accessTokenTtl, Duration refreshTokenTtl) {
+        this.keySet = keySet;
+        this.remoteJwks = remoteJwks;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return keyFor(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    // Short-lived token that authenticates API requests
     public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
+        return generateToken(username, ACCESS, accessTokenTtl);
+    }
+
+    // Long-lived token that is only good for POST /token/refresh
+    public String generateRefreshToken(String username) {
+        return generateToken(username, REFRESH, refreshTokenTtl);
+    }
+
+    public TokenPair generateTokenPair(String username) {
+        return new TokenPair(generateToken(username), generateRefreshToken(username), accessTokenTtl.toSeconds());
+    }
+
+    private String generateToken(String username, String use, Duration ttl) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header()
+                .keyId(keySet.activeKid())
+                .and()
                 .claims()
-                .add(claims)
+                .id(UUID.randomUUID().toString()) // Lets a single token be revoked
+                .add(TOKEN_USE, use)
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + (60 * 60 * 60)))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttl.toMillis()))
                 .and()
-                .signWith(getKey())
+                .signWith(keySet.signingKey())
                 .compact();
-
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = validateAndGetClaims(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
+    }
+
+    // Checks the signature and expiry with a single parse and returns all claims; null if the token is invalid or expired
+    public Claims validateAndGetClaims(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Public JWK Set of the signing keys, served at /.well-known/jwks.json
+    public String jwksJson() {
+        return keySet.jwksJson();
+    }
+
+    private Key keyFor(String kid) {
+        if (kid == null) {
+            return keySet.verificationKey(keySet.activeKid()); // Tokens signed before key ids were added
+        }
+        Key key = keySet.verificationKey(kid);
+        if (key == null && remoteJwks != null) {
+            key = remoteJwks.get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown key id: " + kid);
+        }
+        return key;
     }
 
     public String extractUserName(String token) {
@@ -68,19 +159,7 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The keys JWTService signs and verifies with, by key id (kid). Either HMAC secrets, where every
+// verifier needs the secret, or key pairs from a keystore (EC P-256 -> ES256, Ed25519 -> EdDSA),
+// where only the signer holds private keys and verifiers need just the public JWKS. Immutable.
+public final class JwtKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySet.class);
+
+    private final String activeKid;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final String jwksJson;
+
+    public JwtKeySet(String activeKid, Key signingKey, Map<String, ? extends Key> verificationKeys) {
+        if (!verificationKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("jwt.active-kid '" + activeKid + "' is not one of the configured keys");
+        }
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(new LinkedHashMap<>(verificationKeys));
+        List<String> publicJwks = new ArrayList<>();
+        this.verificationKeys.forEach((kid, key) -> {
+            if (key instanceof PublicKey publicKey) { // Secrets are never published
+                publicJwks.add(Jwks.json(Jwks.builder().key(publicKey).id(kid).build()));
+            }
+        });
+        this.jwksJson = "{\"keys\":[" + String.join(",", publicJwks) + "]}";
+    }
+
+    // HMAC secrets from "kid1:base64Secret,kid2:base64Secret"; a random one when empty
+    public static JwtKeySet hmac(String signingKeys, String activeKid) {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        for (String entry : signingKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon < 1) {
+                throw new IllegalStateException("jwt.signing-keys entries must look like kid:base64Secret");
+            }
+            keys.put(entry.substring(0, colon).trim(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.substring(colon + 1).trim())));
+        }
+        if (keys.isEmpty()) {
+            log.warn("No jwt.signing-keys configured; using a random key, so tokens will not survive a restart");
+            activeKid = "generated";
+            keys.put(activeKid, generateSecret());
+        } else if (activeKid.isEmpty()) {
+            activeKid = keys.keySet().iterator().next();
+        }
+        return new JwtKeySet(activeKid, keys.get(activeKid), keys);
+    }
+
+    // Every private key entry of the keystore, by alias; the alias is the kid
+    public static JwtKeySet keystore(Path path, String type, char[] password, String activeKid) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(in, password);
+            Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+            Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (keyStore.isKeyEntry(alias) && keyStore.getKey(alias, password) instanceof PrivateKey privateKey) {
+                    privateKeys.put(alias, privateKey);
+                    publicKeys.put(alias, keyStore.getCertificate(alias).getPublicKey());
+                }
+            }
+            if (privateKeys.isEmpty()) {
+                throw new IllegalStateException("No private keys in " + path);
+            }
+            if (activeKid.isEmpty()) {
+                activeKid = privateKeys.keySet().iterator().next();
+            }
+            return new JwtKeySet(activeKid, privateKeys.get(activeKid), publicKeys);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT keys from " + path, e);
+        }
+    }
+
+    private static SecretKey generateSecret() {
+        try {
+            return KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String activeKid() {
+        return activeKid;
+    }
+
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    public Key verificationKey(String kid) {
+        return verificationKeys.get(kid);
+    }
+
+    // JWK Set document with the public keys; empty for HMAC
+    public String jwksJson() {
+        return jwksJson;
+    }
+}
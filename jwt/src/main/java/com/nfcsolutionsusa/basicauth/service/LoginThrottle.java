@@ -0,0 +1,226 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token buckets for login attempts, one per client IP and one per username, taken before any
+// user query or password hash. Each bucket is a single AtomicLong holding its "theoretical arrival
+// time" (GCRA): taking a token is one CAS, with no locks, and a bucket whose time has passed is
+// full, so it holds no information and can be dropped. Idle buckets are swept once per refill
+// period; if max-keys distinct keys are live at once, new keys share one overflow bucket rather
+// than evicting (and so resetting) anyone's bucket.
+// Every attempt takes its tokens when it is admitted, so however many run at once, no more than
+// capacity get through; an attempt whose credentials turn out to be good is refunded afterwards.
+@Component
+public class LoginThrottle {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final Buckets byIp;
+    private final Buckets byUser;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginThrottle(@Value("${jwt.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${jwt.login-throttle.ip.refill-period:1m}") Duration ipRefillPeriod,
+                         @Value("${jwt.login-throttle.user.capacity:5}") int userCapacity,
+                         @Value("${jwt.login-throttle.user.refill-period:1m}") Duration userRefillPeriod,
+                         @Value("${jwt.login-throttle.max-keys:100000}") int maxKeys) {
+        this(new Buckets(ipCapacity, ipRefillPeriod, maxKeys), new Buckets(userCapacity, userRefillPeriod, maxKeys),
+                System::nanoTime);
+    }
+
+    LoginThrottle(Buckets byIp, Buckets byUser, LongSupplier nanoTime) {
+        this.byIp = byIp;
+        this.byUser = byUser;
+        this.nanoTime = nanoTime;
+    }
+
+    // Takes a token from the IP's and the username's bucket, or neither if either is empty
+    public Attempt tryAcquire(String ip, String userName) {
+        long now = nanoTime.getAsLong();
+        AtomicLong ipToken = byIp.tryAcquire(ip, now);
+        if (ipToken == null) {
+            return Attempt.throttled(byIp.waitTime(ip, now));
+        }
+        if (userName == null) {
+            return new Attempt(ipToken, null, 0);
+        }
+        String userKey = userKey(userName);
+        AtomicLong userToken = byUser.tryAcquire(userKey, now);
+        if (userToken == null) {
+            byIp.refund(ipToken, now); // Never attempted
+            return Attempt.throttled(byUser.waitTime(userKey, now));
+        }
+        return new Attempt(ipToken, userToken, 0);
+    }
+
+    // Gives an admitted attempt's tokens back once its credentials were accepted, so only failures add up
+    public void refund(Attempt attempt) {
+        if (!attempt.admitted()) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        byIp.refund(attempt.ipToken, now);
+        if (attempt.userToken != null) {
+            byUser.refund(attempt.userToken, now);
+        }
+    }
+
+    // An admitted attempt holds the buckets it took from; a throttled one, the nanoseconds until it would be admitted
+    public static final class Attempt {
+        private final AtomicLong ipToken;
+        private final AtomicLong userToken;
+        private final long waitNanos;
+
+        private Attempt(AtomicLong ipToken, AtomicLong userToken, long waitNanos) {
+            this.ipToken = ipToken;
+            this.userToken = userToken;
+            this.waitNanos = waitNanos;
+        }
+
+        private static Attempt throttled(long waitNanos) {
+            return new Attempt(null, null, Math.max(1, waitNanos));
+        }
+
+        public boolean admitted() {
+            return waitNanos == 0;
+        }
+
+        public long waitNanos() {
+            return waitNanos;
+        }
+    }
+
+    // Case and padding variants of one name share a bucket
+    private static String userKey(String userName) {
+        String key = userName.strip().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    // GCRA buckets: capacity attempts at once, refilled at capacity per refill period
+    static final class Buckets {
+        private static final long RETIRED = Long.MIN_VALUE; // Swept; attempts must look the key up again
+
+        private final long interval;
+        private final long tolerance;
+        private final long sweepEvery;
+        private final int maxKeys;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE + 1);
+        private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger live = new AtomicInteger();
+
+        Buckets(int capacity, Duration refillPeriod, int maxKeys) {
+            this.interval = refillPeriod.toNanos() / capacity;
+            this.tolerance = interval * (capacity - 1);
+            this.sweepEvery = refillPeriod.toNanos();
+            this.maxKeys = maxKeys;
+        }
+
+        // Nanoseconds until the key has a token again, 0 if it has one now; never creates a bucket
+        long waitTime(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null && live.get() >= maxKeys) {
+                bucket = overflow; // Where an attempt for this key would take its token
+            }
+            long stored = bucket == null ? RETIRED : bucket.get();
+            if (stored == RETIRED || stored <= now) {
+                return 0; // Full
+            }
+            return Math.max(0, stored - now - tolerance);
+        }
+
+        // Takes a token with a single CAS if one is left and returns its bucket, otherwise null. Concurrent
+        // attempts race on the same arrival time, so at most capacity of a burst get a token.
+        AtomicLong tryAcquire(String key, long now) {
+            sweepIfDue(now);
+            while (true) {
+                AtomicLong bucket = bucket(key, now);
+                long stored = bucket.get();
+                if (stored == RETIRED) {
+                    continue;
+                }
+                long next = Math.max(stored, now) + interval;
+                if (next - now > tolerance + interval) {
+                    return null;
+                }
+                if (bucket.compareAndSet(stored, next)) {
+                    return bucket;
+                }
+            }
+        }
+
+        // Returns a token to the bucket it came from; a bucket that has refilled (or was swept) is already full
+        void refund(AtomicLong bucket, long now) {
+            while (true) {
+                long stored = bucket.get();
+                if (stored == RETIRED || stored <= now || bucket.compareAndSet(stored, Math.max(now, stored - interval))) {
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return buckets.size();
+        }
+
+        private AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null && bucket.get() != RETIRED) {
+                return bucket;
+            }
+            if (bucket != null && buckets.remove(key, bucket)) {
+                live.decrementAndGet();
+            }
+            if (!reserve()) {
+                sweep(now);
+                if (!reserve()) {
+                    return overflow;
+                }
+            }
+            AtomicLong created = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(key, created);
+            if (existing != null) {
+                live.decrementAndGet(); // Another thread added it first
+                return existing;
+            }
+            return created;
+        }
+
+        // Claims a slot before inserting, so concurrent inserts cannot overshoot maxKeys
+        private boolean reserve() {
+            if (live.incrementAndGet() > maxKeys) {
+                live.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void sweepIfDue(long now) {
+            long due = nextSweep.get();
+            if (now >= due && nextSweep.compareAndSet(due, now + sweepEvery)) {
+                sweep(now);
+            }
+        }
+
+        // Drops full buckets; the CAS to RETIRED fails if an attempt got there first
+        private void sweep(long now) {
+            buckets.forEach((key, bucket) -> {
+                long stored = bucket.get();
+                if (stored != RETIRED && stored <= now && bucket.compareAndSet(stored, RETIRED) && buckets.remove(key, bucket)) {
+                    live.decrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+// Every hashing thread is busy and the queue is full; HashingBackpressureFilter turns it into a 429
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many password hashing requests");
+    }
+}
@@ -0,0 +1,123 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The one PasswordEncoder for registration and login. BCrypt runs on a small dedicated pool
+// (half the cores by default) with a bounded queue, so a burst of logins or registrations can
+// only keep that many cores busy; request threads wait without burning CPU, and once the queue
+// is full callers get PasswordHashingBusyException (429) instead of queueing without limit.
+// The cost factor is calibrated at startup to take about jwt.password-hashing.target-time per
+// hash, never below MIN_STRENGTH. Stored hashes with a lower cost are upgraded on the next
+// successful login (upgradeEncoding + DaoAuthenticationProvider's UserDetailsPasswordService).
+// HTTP Basic sends the password on every request, so successful checks go through VerifiedPasswords
+// and only a client's first request in jwt.password-hashing.verified-cache.ttl pays for the hash.
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private final BCryptPasswordEncoder encoder;
+    private final VerifiedPasswords verified;
+    final ThreadPoolExecutor executor;
+
+    @Autowired
+    public PasswordHashingService(@Value("${jwt.password-hashing.threads:0}") int threads,
+                                  @Value("${jwt.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${jwt.password-hashing.target-time:100ms}") Duration targetTime,
+                                  @Value("${jwt.password-hashing.verified-cache.ttl:1m}") Duration verifiedTtl,
+                                  @Value("${jwt.password-hashing.verified-cache.max-size:10000}") int verifiedMaxSize) {
+        this(calibrate(targetTime), threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                queueCapacity, new VerifiedPasswords(verifiedTtl, verifiedMaxSize, System::nanoTime));
+    }
+
+    PasswordHashingService(int strength, int threads, int queueCapacity, VerifiedPasswords verified) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.verified = verified;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("BCrypt cost {} on {} hashing threads", strength, threads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return verified.matches(rawPassword, encodedPassword, () -> run(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword); // True for hashes made with a lower cost
+    }
+
+    <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Times one hash at MIN_STRENGTH; each step up in cost doubles the work
+    static int calibrate(Duration targetTime) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("warm-up");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && best * 2 <= targetTime.toNanos()) {
+            best *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
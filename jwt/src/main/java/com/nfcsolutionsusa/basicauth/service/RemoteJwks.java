@@ -0,0 +1,107 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Verifier-side copy of a signer's JWKS (jwt.jwks-uri), so a node can check tokens signed
+// elsewhere without holding any secret. Refreshed in the background every jwt.jwks-refresh.
+// A token with an unknown kid triggers an early refresh, at most once per jwt.jwks-min-refresh,
+// which picks up a rotated key straight away without letting bad tokens hammer the signer.
+@Component
+@ConditionalOnProperty("jwt.jwks-uri")
+public class RemoteJwks {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteJwks.class);
+
+    private final URI uri;
+    private final long refreshMillis;
+    private final long minRefreshNanos;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<String, Key> keys = Map.of();
+    private volatile long lastFetchNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    public RemoteJwks(@Value("${jwt.jwks-uri}") URI uri,
+                      @Value("${jwt.jwks-refresh:5m}") Duration refresh,
+                      @Value("${jwt.jwks-min-refresh:30s}") Duration minRefresh) {
+        this.uri = uri;
+        this.refreshMillis = refresh.toMillis();
+        this.minRefreshNanos = minRefresh.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    // The public key for the kid, or null if the signer does not publish it
+    public Key get(String kid) {
+        Key key = keys.get(kid);
+        if (key == null && System.nanoTime() - lastFetchNanos >= minRefreshNanos) {
+            synchronized (this) {
+                if (System.nanoTime() - lastFetchNanos >= minRefreshNanos) { // Concurrent misses share one fetch
+                    refresh();
+                }
+            }
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    synchronized void refresh() {
+        lastFetchNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("JWKS fetch from {} returned {}; keeping {} cached keys", uri, response.statusCode(), keys.size());
+                return;
+            }
+            JwkSet jwkSet = Jwks.setParser().build().parse(response.body());
+            Map<String, Key> fetched = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet) {
+                if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null) {
+                    fetched.put(jwk.getId(), publicJwk.toKey());
+                }
+            }
+            keys = Map.copyOf(fetched);
+        } catch (IOException | RuntimeException e) {
+            log.warn("JWKS fetch from {} failed; keeping {} cached keys", uri, keys.size(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
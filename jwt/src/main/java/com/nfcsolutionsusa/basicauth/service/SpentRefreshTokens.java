@@ -0,0 +1,90 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.nfcsolutionsusa.basicauth.model.SpentRefreshToken;
+import com.nfcsolutionsusa.basicauth.repository.SpentRefreshTokenRepo;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Used and revoked refresh tokens, kept in the database rather than in TokenRevocationList: refresh tokens
+// live for days, so single use and logout have to survive a restart and hold on every replica. The
+// primary-key insert decides which of two concurrent uses wins. Rows are purged every
+// jwt.refresh-token-purge-interval once their token has expired, so the table only holds tokens
+// that could still be presented.
+@Component
+public class SpentRefreshTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(SpentRefreshTokens.class);
+
+    private final SpentRefreshTokenRepo repo;
+    private final Clock clock;
+    private final long purgeIntervalMillis;
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public SpentRefreshTokens(SpentRefreshTokenRepo repo,
+                              @Value("${jwt.refresh-token-purge-interval:1h}") Duration purgeInterval) {
+        this(repo, purgeInterval, Clock.systemUTC());
+    }
+
+    SpentRefreshTokens(SpentRefreshTokenRepo repo, Duration purgeInterval, Clock clock) {
+        this.repo = repo;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purge, purgeIntervalMillis, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purger.shutdownNow();
+    }
+
+    // False if the token was already spent (or cannot be tracked), so each refresh token works once
+    public boolean spend(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false; // Such tokens are not issued any more
+        }
+        if (!claims.getExpiration().toInstant().isAfter(clock.instant())) {
+            return false; // Already rejected as expired
+        }
+        if (repo.existsById(claims.getId())) {
+            return false; // The usual replay; spares the failed insert (and its error log)
+        }
+        try {
+            repo.saveAndFlush(new SpentRefreshToken(claims.getId(), claims.getExpiration().toInstant()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // Spent concurrently, e.g. on another replica
+        }
+    }
+
+    int purge() {
+        try {
+            return repo.deleteExpired(clock.instant());
+        } catch (RuntimeException e) {
+            log.warn("Spent refresh token purge failed, retrying on the next run", e); // Keep the scheduled task alive
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked access token ids (jti), grouped into buckets by the token's expiry time. A token only has to stay
+// on the list until it expires, so whole buckets are dropped once their window has passed. A check
+// looks in the one bucket its exp falls in, so it costs O(1) however many tokens are revoked. Ids are
+// stored as 64-bit fingerprints in open-addressing long arrays, about 16 bytes per revoked token.
+// Per-node; with several replicas the short access-token lifetime bounds how long a revoked
+// access token can still be used elsewhere. Refresh tokens live far longer and go to SpentRefreshTokens.
+@Component
+public class TokenRevocationList {
+
+    private final long bucketMillis;
+    private final Clock clock;
+    private final Map<Long, LongSet> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenRevocationList(@Value("${jwt.revocation.bucket-width:1m}") Duration bucketWidth) {
+        this(bucketWidth, Clock.systemUTC());
+    }
+
+    TokenRevocationList(Duration bucketWidth, Clock clock) {
+        this.bucketMillis = bucketWidth.toMillis();
+        this.clock = clock;
+    }
+
+    // False if the token was already revoked
+    public boolean revoke(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (claims.getId() == null || expiration == null) {
+            return false; // Cannot be listed; such tokens are not issued any more
+        }
+        long now = clock.millis();
+        if (expiration.getTime() <= now) {
+            return false; // Already rejected as expired
+        }
+        boolean added = buckets.computeIfAbsent(bucketOf(expiration.getTime()), bucket -> new LongSet())
+                .add(fingerprint(claims.getId()));
+        purge(now);
+        return added;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (claims.getId() == null || expiration == null) {
+            return false;
+        }
+        LongSet bucket = buckets.get(bucketOf(expiration.getTime()));
+        return bucket != null && bucket.contains(fingerprint(claims.getId()));
+    }
+
+    int size() {
+        return buckets.values().stream().mapToInt(LongSet::size).sum();
+    }
+
+    // Drops buckets whose every token has expired
+    private void purge(long now) {
+        long current = bucketOf(now);
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / bucketMillis;
+    }
+
+    // 64-bit FNV-1a; never 0, which marks an empty slot
+    private static long fingerprint(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    // Open-addressing set of non-zero longs, kept at most half full
+    private static final class LongSet {
+        private long[] slots = new long[16];
+        private int size;
+
+        synchronized boolean add(long value) {
+            if (!insert(slots, value)) {
+                return false;
+            }
+            size++;
+            if (size * 2 > slots.length) {
+                long[] grown = new long[slots.length * 2];
+                for (long slot : slots) {
+                    if (slot != 0) {
+                        insert(grown, slot);
+                    }
+                }
+                slots = grown;
+            }
+            return true;
+        }
+
+        synchronized boolean contains(long value) {
+            int mask = slots.length - 1;
+            for (int i = mix(value) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (slots[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private static boolean insert(long[] table, long value) {
+            int mask = table.length - 1;
+            int i = mix(value) & mask;
+            while (table[i] != 0) {
+                if (table[i] == value) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+            return true;
+        }
+
+        private static int mix(long value) {
+            return (int) (value ^ (value >>> 32)) * 0x9E3779B9;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.nfcsolutionsusa.basicauth.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Entity listener on User: any write to a user row (a password change, including a login's hash upgrade,
+// or any other update) drops that user's cached UserDetails, whichever code path saved it. Inside a
+// transaction the entry is dropped again after commit, so a load racing the flush cannot keep the old row.
+// Created by Hibernate through Spring's bean container; the cache is looked up lazily because it
+// depends on the repository this listener is registered with.
+public class UserCacheEvictor {
+
+    private final ObjectProvider<CachingUserDetailsService> userDetailsService;
+
+    public UserCacheEvictor(ObjectProvider<CachingUserDetailsService> userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void userChanged(User user) {
+        String userName = user.getUserName();
+        if (userName == null) {
+            return;
+        }
+        evict(userName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userName);
+                }
+            });
+        }
+    }
+
+    private void evict(String userName) {
+        userDetailsService.ifAvailable(cache -> cache.evict(userName));
+    }
+}
@@ -5,17 +5,32 @@ import com.nfcsolutionsusa.basicauth.model.UserPrincipal;
 import com.nfcsolutionsusa.basicauth.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepo userRepo;
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
         User user = userRepo.findByUserName(userName);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + userName);
+        }
+        return new UserPrincipal(user);
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepo.findByUserName(userDetails.getUsername());
+        if (user == null) {
+            return userDetails;
+        }
+        user.setPwd(newPassword);
+        userRepo.save(user);
         return new UserPrincipal(user);
     }
 }
@@ -1,12 +1,15 @@
 package com.nfcsolutionsusa.basicauth.service;
 
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
 import com.nfcsolutionsusa.basicauth.model.User;
 import com.nfcsolutionsusa.basicauth.repository.UserRepo;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,9 +25,20 @@ public class UserService {
     @Autowired
     AuthenticationManager authManager;
 
+    @Autowired
+    private CachingUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private SpentRefreshTokens spentRefreshTokens;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     public User register(User user) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5);
-        user.setPwd(encoder.encode(user.getPwd()));
+        user.setPwd(passwordHashingService.encode(user.getPwd()));
         userRepo.save(user);
         return user;
     }
@@ -33,15 +47,41 @@ public class UserService {
         return userRepo.findAll();
     }
 
-    public String verify(User user) {
+    public TokenPair verify(User user) {
         System.out.println("inside verify");
         Authentication authentication = authManager.authenticate(
                 new UsernamePasswordAuthenticationToken(user.getUserName(), user.getPwd())
         );
         if (authentication.isAuthenticated()) {
-            return jwtService.generateToken(user.getUserName());
+            return jwtService.generateTokenPair(user.getUserName());
+        } else {
+            return null;
+        }
+    }
+
+    // New token pair for a valid refresh token, without a password check. Each refresh token works once.
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = refreshToken == null ? null : jwtService.validateAndGetClaims(refreshToken);
+        if (claims == null || !JWTService.REFRESH.equals(claims.get(JWTService.TOKEN_USE))) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject()); // Still registered?
+        if (!spentRefreshTokens.spend(claims)) {
+            throw new BadCredentialsException("Refresh token already used or revoked");
+        }
+        return jwtService.generateTokenPair(userDetails.getUsername());
+    }
+
+    // Logout: the token (access or refresh) stops working before it expires; invalid tokens are ignored
+    public void revoke(String token) {
+        Claims claims = token == null ? null : jwtService.validateAndGetClaims(token);
+        if (claims == null) {
+            return;
+        }
+        if (JWTService.REFRESH.equals(claims.get(JWTService.TOKEN_USE))) {
+            spentRefreshTokens.spend(claims);
         } else {
-            return "fail";
+            revocationList.revoke(claims);
         }
     }
 }
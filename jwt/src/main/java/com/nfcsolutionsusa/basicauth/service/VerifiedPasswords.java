@@ -0,0 +1,88 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+// Successful password checks, remembered for ttl so a client that repeats its HTTP Basic credentials
+// skips BCrypt. Entries are keyed by an HMAC (under a random per-process key) of the stored hash and the
+// password, so the password itself is never kept and a changed stored hash - a new password or an
+// upgraded cost - always misses. Failed checks are never remembered. At most maxSize live entries are
+// kept; past that a success is simply not remembered. A ttl or maxSize of 0 turns the cache off.
+final class VerifiedPasswords {
+
+    private final Map<ByteBuffer, Long> verified = new ConcurrentHashMap<>(); // Fingerprint -> expiry (nanos)
+    private final byte[] key = new byte[32];
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextSweep;
+
+    VerifiedPasswords(Duration ttl, int maxSize, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.nanoTime = nanoTime;
+        this.nextSweep = new AtomicLong(nanoTime.getAsLong());
+        new SecureRandom().nextBytes(key);
+    }
+
+    // True if this password was verified against this hash within ttl, otherwise the result of check
+    boolean matches(CharSequence rawPassword, String encodedPassword, BooleanSupplier check) {
+        if (ttlNanos <= 0 || maxSize <= 0 || rawPassword == null || encodedPassword == null) {
+            return check.getAsBoolean();
+        }
+        ByteBuffer fingerprint = fingerprint(rawPassword, encodedPassword);
+        Long expiry = verified.get(fingerprint);
+        if (expiry != null && expiry - nanoTime.getAsLong() > 0) {
+            return true;
+        }
+        if (!check.getAsBoolean()) {
+            return false;
+        }
+        remember(fingerprint, nanoTime.getAsLong());
+        return true;
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private void remember(ByteBuffer fingerprint, long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + ttlNanos)) {
+            sweep(now);
+        }
+        if (verified.size() >= maxSize) {
+            sweep(now);
+            if (verified.size() >= maxSize) {
+                return;
+            }
+        }
+        verified.put(fingerprint, now + ttlNanos);
+    }
+
+    private void sweep(long now) {
+        verified.values().removeIf(expiry -> expiry - now <= 0);
+    }
+
+    private ByteBuffer fingerprint(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return ByteBuffer.wrap(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
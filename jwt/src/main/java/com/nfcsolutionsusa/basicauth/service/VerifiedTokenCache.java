@@ -0,0 +1,92 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+
+// Remembers tokens that already passed signature and expiry checks, so a client sending the same
+// bearer token again skips the parse and the HMAC. Keys are SHA-256 hashes of the token (the token
+// itself is never stored). An entry lives until the token's exp, capped at max-ttl, and only tokens
+// that verified are cached.
+@Component
+public class VerifiedTokenCache {
+
+    private final JWTService jwtService;
+    private final Cache<ByteBuffer, Claims> verified;
+
+    @Autowired
+    public VerifiedTokenCache(JWTService jwtService,
+                              @Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.verified-cache.max-ttl:5m}") Duration maxTtl) {
+        this(jwtService, maxSize, maxTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    // The ticker times the entries; the clock is the wall time that token exp claims are compared with
+    VerifiedTokenCache(JWTService jwtService, long maxSize, Duration maxTtl, Ticker ticker, Clock clock) {
+        this.jwtService = jwtService;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiration(maxTtl.toNanos(), clock))
+                .ticker(ticker)
+                .build();
+    }
+
+    // Claims of a valid, unexpired token; null otherwise
+    public Claims verify(String token) {
+        ByteBuffer key = hash(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtService.validateAndGetClaims(token);
+            if (claims != null) {
+                verified.put(key, claims);
+            }
+        }
+        return claims;
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Expires each entry when its token does, or after maxTtl, whichever comes first. The time left on the
+    // token is read from the clock and counted from currentTime, the cache's own ticker reading.
+    private record UntilExpiration(long maxTtlNanos, Clock clock) implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remaining = Duration.ofMillis(expiration.getTime() - clock.millis()).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
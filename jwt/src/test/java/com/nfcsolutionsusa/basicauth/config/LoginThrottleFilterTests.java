@@ -0,0 +1,210 @@
+package com.nfcsolutionsusa.basicauth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nfcsolutionsusa.basicauth.model.User;
+import com.nfcsolutionsusa.basicauth.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleFilterTests {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final LoginThrottle throttle = new LoginThrottle(20, Duration.ofMinutes(1), 5, Duration.ofMinutes(1), 1000);
+	private final LoginThrottleFilter filter = new LoginThrottleFilter(throttle);
+	private final AtomicInteger authentications = new AtomicInteger();
+	private final AuthenticationManager authManager = authManager();
+
+	@Test
+	void aThrottledLoginGets429WithoutReachingTheAuthenticationManager() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			assertThat(login("{\"userName\":\"alice\",\"pwd\":\"wrong\"}").getStatus()).isEqualTo(401);
+		}
+
+		MockHttpServletResponse response = login("{\"userName\":\"Alice\",\"pwd\":\"secret\"}");
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("12");
+		assertThat(authentications).hasValue(5);
+		assertThat(login("{\"userName\":\"bob\",\"pwd\":\"secret\"}").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void successfulLoginsGiveTheirTokensBack() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			assertThat(login("{\"userName\":\"alice\",\"pwd\":\"secret\"}").getStatus()).isEqualTo(200);
+		}
+		for (int i = 0; i < 5; i++) {
+			assertThat(login("{\"userName\":\"alice\",\"pwd\":\"wrong\"}").getStatus()).isEqualTo(401); // The whole budget is left
+		}
+		assertThat(login("{\"userName\":\"alice\",\"pwd\":\"wrong\"}").getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void theControllerStillReceivesTheWholeBody() throws Exception {
+		String body = "{\"userName\":\"alice\",\"pwd\":\"secret\",\"padding\":\"" + "x".repeat(8000) + "\"}";
+		assertThat(body.length()).isLessThan(8192);
+		AtomicReference<String> received = new AtomicReference<>();
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(loginRequest(body), response, (req, res) -> received.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+		assertThat(received.get()).isEqualTo(body);
+
+		filter.doFilter(loginRequest(body), new MockHttpServletResponse(), (req, res) -> received.set(req.getReader().readLine()));
+		assertThat(received.get()).isEqualTo(body);
+	}
+
+	@Test
+	void oversizedLoginBodiesGet413() throws Exception {
+		String body = "{\"userName\":\"alice\",\"pwd\":\"" + "x".repeat(8192) + "\"}";
+		MockHttpServletResponse response = login(body);
+		assertThat(response.getStatus()).isEqualTo(413);
+		assertThat(authentications).hasValue(0);
+	}
+
+	@Test
+	void aLoginWithoutAUserNameIsThrottledByIpOnly() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertThat(login("not json").getStatus()).isEqualTo(401); // Past the username capacity of 5
+		}
+		assertThat(login("not json").getStatus()).isEqualTo(429);
+		assertThat(login("{\"userName\":\"alice\",\"pwd\":\"secret\"}").getStatus()).isEqualTo(429); // Same IP
+	}
+
+	@Test
+	void aConcurrentBurstOfBadLoginsReachesAuthenticationAtMostCapacityTimes() throws Exception {
+		int requests = 32;
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger admitted = new AtomicInteger();
+		FilterChain slowBadPassword = (req, res) -> { // Every admitted attempt is still in flight when the others arrive
+			admitted.incrementAndGet();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			((HttpServletResponse) res).setStatus(401);
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(requests);
+		List<Future<Integer>> statuses = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			statuses.add(executor.submit(() -> {
+				start.await();
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				filter.doFilter(loginRequest("{\"userName\":\"alice\",\"pwd\":\"wrong\"}"), response, slowBadPassword);
+				return response.getStatus();
+			}));
+		}
+		start.countDown();
+		while (admitted.get() < 5 && statuses.stream().anyMatch(s -> !s.isDone())) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(100); // Give any attempt that slipped through time to show up
+		release.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(admitted).hasValue(5);
+		int throttled = 0;
+		for (Future<Integer> status : statuses) {
+			throttled += status.get() == 429 ? 1 : 0;
+		}
+		assertThat(throttled).isEqualTo(requests - 5);
+	}
+
+	@Test
+	void basicCredentialsAreThrottledToo() throws Exception {
+		FilterChain unauthorized = (req, res) -> ((HttpServletResponse) res).setStatus(401);
+		for (int i = 0; i < 5; i++) {
+			assertThat(send(basicRequest("alice:wrong"), unauthorized).getStatus()).isEqualTo(401);
+		}
+		assertThat(send(basicRequest("alice:wrong"), unauthorized).getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void otherRequestsAreNotThrottled() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+			request.setServletPath("/users");
+			assertThat(send(request, (req, res) -> ((HttpServletResponse) res).setStatus(401)).getStatus()).isEqualTo(401);
+		}
+	}
+
+	// Login through the filter into what UserController.login does: read the body, then authenticate.
+	// A failed authentication becomes 401, as ExceptionTranslationFilter would answer it.
+	private MockHttpServletResponse login(String body) throws Exception {
+		return send(loginRequest(body), (req, res) -> {
+			try {
+				User user = objectMapper.readValue(req.getInputStream(), User.class);
+				authManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUserName(), user.getPwd()));
+				((HttpServletResponse) res).setStatus(200);
+			} catch (AuthenticationException | IOException e) {
+				((HttpServletResponse) res).setStatus(401);
+			}
+		});
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+
+	private static MockHttpServletRequest loginRequest(String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+		request.setServletPath("/login");
+		request.setRemoteAddr("10.0.0.1");
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static MockHttpServletRequest basicRequest(String credentials) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+		request.setServletPath("/users");
+		request.setRemoteAddr("10.0.0.1");
+		request.addHeader("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+		return request;
+	}
+
+	private AuthenticationManager authManager() {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(new InMemoryUserDetailsManager(
+				org.springframework.security.core.userdetails.User.withUsername("alice").password(encoder.encode("secret")).roles("USER").build(),
+				org.springframework.security.core.userdetails.User.withUsername("bob").password(encoder.encode("secret")).roles("USER").build()));
+		ProviderManager manager = new ProviderManager(provider);
+		return authentication -> {
+			authentications.incrementAndGet();
+			return manager.authenticate(authentication);
+		};
+	}
+}
@@ -0,0 +1,104 @@
+package com.nfcsolutionsusa.basicauth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:token-refresh;NON_KEYWORDS=USER",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"jwt.password-hashing.target-time=1ms"})
+@AutoConfigureMockMvc
+class TokenRefreshTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private TokenPair tokens;
+
+	@BeforeEach
+	void login() throws Exception {
+		String credentials = "{\"userName\":\"user-" + UUID.randomUUID() + "\",\"pwd\":\"secret\"}";
+		mockMvc.perform(post("/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		String body = mockMvc.perform(get("/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		tokens = objectMapper.readValue(body, TokenPair.class);
+	}
+
+	@Test
+	void aRefreshTokenWorksOnceAndAReplayIsRejected() throws Exception {
+		TokenPair rotated = read(refresh(tokens.getRefreshToken()).andExpect(status().isOk()));
+		assertThat(rotated.getRefreshToken()).isNotEqualTo(tokens.getRefreshToken());
+
+		refresh(tokens.getRefreshToken()).andExpect(status().isUnauthorized());
+		refresh(rotated.getRefreshToken()).andExpect(status().isOk()); // The new one still works, once
+	}
+
+	@Test
+	void aRevokedRefreshTokenCannotBeUsed() throws Exception {
+		revoke(tokens.getRefreshToken());
+
+		refresh(tokens.getRefreshToken()).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void anAccessTokenIsRejectedAtRefresh() throws Exception {
+		refresh(tokens.getAccessToken()).andExpect(status().isUnauthorized());
+		refresh("not-a-token").andExpect(status().isUnauthorized());
+
+		refresh(tokens.getRefreshToken()).andExpect(status().isOk()); // The failed attempts did not spend it
+	}
+
+	@Test
+	void aRevokedAccessTokenStopsWorking() throws Exception {
+		mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.getAccessToken()))
+				.andExpect(status().isOk());
+
+		revoke(tokens.getAccessToken());
+
+		mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.getAccessToken()))
+				.andExpect(status().isUnauthorized());
+		refresh(tokens.getRefreshToken()).andExpect(status().isOk()); // Logging out one access token keeps the refresh token
+	}
+
+	private ResultActions refresh(String token) throws Exception {
+		return mockMvc.perform(post("/token/refresh").contentType(MediaType.APPLICATION_JSON).content(tokenRequest(token)));
+	}
+
+	private void revoke(String token) throws Exception {
+		mockMvc.perform(post("/token/revoke").contentType(MediaType.APPLICATION_JSON).content(tokenRequest(token)))
+				.andExpect(status().isNoContent());
+	}
+
+	private String tokenRequest(String token) throws Exception {
+		return objectMapper.writeValueAsString(Map.of("token", token));
+	}
+
+	private TokenPair read(ResultActions result) throws Exception {
+		return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), TokenPair.class);
+	}
+}
@@ -0,0 +1,105 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.nfcsolutionsusa.basicauth.model.User;
+import com.nfcsolutionsusa.basicauth.model.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingUserDetailsServiceTests {
+
+	private final Map<String, User> table = new HashMap<>();
+	private final AtomicInteger queries = new AtomicInteger();
+	private final AtomicLong nanos = new AtomicLong();
+	private CachingUserDetailsService service;
+
+	@BeforeEach
+	void setUp() {
+		table.put("alice", user("alice", "hash"));
+		service = new CachingUserDetailsService(userName -> {
+			queries.incrementAndGet();
+			User user = table.get(userName);
+			if (user == null) {
+				throw new UsernameNotFoundException(userName);
+			}
+			return new UserPrincipal(user);
+		}, 100, Duration.ofSeconds(60), nanos::get);
+	}
+
+	@Test
+	void queriesEachUserOncePerTtl() {
+		service.loadUserByUsername("alice");
+		service.loadUserByUsername("alice");
+		assertThat(queries).hasValue(1);
+
+		nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+		service.loadUserByUsername("alice");
+		assertThat(queries).hasValue(2);
+	}
+
+	@Test
+	void doesNotCacheUnknownUsers() {
+		assertThatThrownBy(() -> service.loadUserByUsername("bob")).isInstanceOf(UsernameNotFoundException.class);
+
+		table.put("bob", user("bob", "hash"));
+		assertThat(service.loadUserByUsername("bob").getUsername()).isEqualTo("bob");
+	}
+
+	@Test
+	void evictionShowsAPasswordChangeImmediately() {
+		assertThat(service.loadUserByUsername("alice").getPassword()).isEqualTo("hash");
+
+		table.put("alice", user("alice", "new-hash"));
+		service.evict("alice");
+		assertThat(service.loadUserByUsername("alice").getPassword()).isEqualTo("new-hash");
+	}
+
+	@Test
+	void userWritesEvictTheCachedUser() {
+		UserCacheEvictor evictor = new UserCacheEvictor(new StaticListableBeanFactory(Map.of("cache", service))
+				.getBeanProvider(CachingUserDetailsService.class));
+		service.loadUserByUsername("alice");
+
+		User updated = user("alice", "new-hash");
+		table.put("alice", updated);
+		evictor.userChanged(updated);
+		assertThat(service.loadUserByUsername("alice").getPassword()).isEqualTo("new-hash");
+		assertThat(queries).hasValue(2);
+	}
+
+	@Test
+	void evictsAgainAfterCommit() {
+		UserCacheEvictor evictor = new UserCacheEvictor(new StaticListableBeanFactory(Map.of("cache", service))
+				.getBeanProvider(CachingUserDetailsService.class));
+		User updated = user("alice", "new-hash");
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			evictor.userChanged(updated);
+			service.loadUserByUsername("alice"); // Reads the old row before the commit
+			table.put("alice", updated);
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertThat(service.loadUserByUsername("alice").getPassword()).isEqualTo("new-hash");
+	}
+
+	private static User user(String userName, String pwd) {
+		User user = new User();
+		user.setUserName(userName);
+		user.setPwd(pwd);
+		return user;
+	}
+}
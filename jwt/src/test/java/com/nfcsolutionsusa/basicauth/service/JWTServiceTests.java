@@ -0,0 +1,123 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.nfcsolutionsusa.basicauth.model.TokenPair;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JWTServiceTests {
+
+	private static final String OLD_SECRET = "b2xkLWtleS1vbGQta2V5LW9sZC1rZXktb2xkLWtleS0xMjM0NTY3OA==";
+	private static final String NEW_SECRET = "bmV3LWtleS1uZXcta2V5LW5ldy1rZXktbmV3LWtleS0xMjM0NTY3OA==";
+
+	@Test
+	void tokensSurviveARestartWithTheSameKeys() {
+		String token = new JWTService("k1:" + OLD_SECRET, "k1").generateToken("alice");
+
+		assertThat(new JWTService("k1:" + OLD_SECRET, "k1").validateAndGetClaims(token).getSubject()).isEqualTo("alice");
+		assertThat(new JWTService().validateAndGetClaims(token)).isNull(); // A random key knows nothing of it
+	}
+
+	@Test
+	void rotationKeepsOlderTokensValidUntilTheirKeyIsRemoved() {
+		String oldToken = new JWTService("k1:" + OLD_SECRET, "k1").generateToken("alice");
+		JWTService rotated = new JWTService("k1:" + OLD_SECRET + ",k2:" + NEW_SECRET, "k2");
+		String newToken = rotated.generateToken("bob");
+
+		assertThat(rotated.validateAndGetClaims(oldToken).getSubject()).isEqualTo("alice");
+		assertThat(rotated.validateAndGetClaims(newToken).getSubject()).isEqualTo("bob");
+
+		JWTService retired = new JWTService("k2:" + NEW_SECRET, "k2");
+		assertThat(retired.validateAndGetClaims(oldToken)).isNull();
+		assertThat(retired.validateAndGetClaims(newToken).getSubject()).isEqualTo("bob");
+	}
+
+	@Test
+	void tokensWithoutAKeyIdUseTheActiveKey() {
+		String legacy = Jwts.builder()
+				.subject("alice")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(NEW_SECRET)))
+				.compact();
+
+		assertThat(new JWTService("k1:" + OLD_SECRET + ",k2:" + NEW_SECRET, "k2").validateAndGetClaims(legacy).getSubject())
+				.isEqualTo("alice");
+	}
+
+	@Test
+	void pairsHoldAShortAccessTokenAndALongRefreshTokenWithDistinctIds() {
+		JWTService service = new JWTService(JwtKeySet.hmac("k1:" + OLD_SECRET, "k1"), null, Duration.ofMinutes(15), Duration.ofDays(14));
+		TokenPair pair = service.generateTokenPair("alice");
+
+		Claims access = service.validateAndGetClaims(pair.getAccessToken());
+		Claims refresh = service.validateAndGetClaims(pair.getRefreshToken());
+		assertThat(access.get(JWTService.TOKEN_USE)).isEqualTo(JWTService.ACCESS);
+		assertThat(refresh.get(JWTService.TOKEN_USE)).isEqualTo(JWTService.REFRESH);
+		assertThat(access.getId()).isNotEqualTo(refresh.getId());
+		assertThat(refresh.getExpiration()).isAfter(Date.from(Instant.now().plus(Duration.ofDays(13))));
+		assertThat(pair.getExpiresIn()).isEqualTo(900);
+	}
+
+	@Test
+	void rejectsAnActiveKidThatIsNotConfigured() {
+		assertThatThrownBy(() -> new JWTService("k1:" + OLD_SECRET, "k9")).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void keystoreKeysSignWithEs256OrEdDsaAndPublishOnlyPublicKeys() throws Exception {
+		for (String kid : new String[]{"es1", "ed1"}) {
+			JWTService signer = new JWTService(keystore(kid), null);
+			String token = signer.generateToken("alice");
+
+			assertThat(signer.validateAndGetClaims(token).getSubject()).isEqualTo("alice");
+			String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+			assertThat(header).contains("\"alg\":\"" + (kid.equals("es1") ? "ES256" : "EdDSA") + "\"");
+		}
+		String jwks = new JWTService(keystore("es1"), null).jwksJson();
+		assertThat(jwks).contains("\"kid\":\"es1\"", "\"kid\":\"ed1\"").doesNotContain("\"d\"");
+		assertThat(new JWTService("k1:" + OLD_SECRET, "k1").jwksJson()).isEqualTo("{\"keys\":[]}");
+	}
+
+	@Test
+	void verifierChecksTokensAgainstTheSignersJwks() throws Exception {
+		JWTService signer = new JWTService(keystore("es1"), null);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/.well-known/jwks.json", exchange -> {
+			byte[] body = signer.jwksJson().getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		try {
+			URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+			RemoteJwks remoteJwks = new RemoteJwks(uri, Duration.ofMinutes(5), Duration.ZERO);
+			JWTService verifier = new JWTService(JwtKeySet.hmac("", ""), remoteJwks); // Holds no key of the signer
+
+			assertThat(verifier.validateAndGetClaims(signer.generateToken("alice")).getSubject()).isEqualTo("alice");
+			assertThat(verifier.validateAndGetClaims(new JWTService().generateToken("mallory"))).isNull();
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static JwtKeySet keystore(String activeKid) throws Exception {
+		Path path = Path.of(JWTServiceTests.class.getResource("/jwt-test.p12").toURI());
+		return JwtKeySet.keystore(path, "PKCS12", "changeit".toCharArray(), activeKid);
+	}
+}
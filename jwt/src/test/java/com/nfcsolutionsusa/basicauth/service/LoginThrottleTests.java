@@ -0,0 +1,155 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTests {
+
+	private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	@Test
+	void onlyUnrefundedAttemptsRunOutAndTheyRefill() {
+		LoginThrottle throttle = throttle(20, 5, 1000);
+		for (int i = 0; i < 100; i++) {
+			LoginThrottle.Attempt attempt = throttle.tryAcquire("10.0.0.1", "alice");
+			assertThat(attempt.admitted()).isTrue();
+			throttle.refund(attempt); // Good credentials
+		}
+		for (int i = 0; i < 5; i++) {
+			assertThat(throttle.tryAcquire("10.0.0.1", "Alice").admitted()).isTrue();
+		}
+		LoginThrottle.Attempt throttled = throttle.tryAcquire("10.0.0.1", " alice "); // Same bucket
+		assertThat(throttled.admitted()).isFalse();
+		assertThat(throttled.waitNanos()).isEqualTo(MINUTE / 5);
+		assertThat(throttle.tryAcquire("10.0.0.1", "bob").admitted()).isTrue();
+
+		nanos.addAndGet(MINUTE / 5);
+		assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isTrue();
+		assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isFalse();
+	}
+
+	@Test
+	void aThrottledUsernameCostsTheIpNothing() {
+		LoginThrottle throttle = throttle(6, 5, 1000);
+		for (int i = 0; i < 5; i++) {
+			assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isTrue();
+		}
+		for (int i = 0; i < 10; i++) {
+			assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isFalse();
+		}
+		assertThat(throttle.tryAcquire("10.0.0.1", "bob").admitted()).isTrue(); // The sixth IP token is still there
+		assertThat(throttle.tryAcquire("10.0.0.1", "carol").admitted()).isFalse();
+	}
+
+	@RepeatedTest(20)
+	void aConcurrentBurstAdmitsAtMostTheCapacity() throws Exception {
+		LoginThrottle throttle = throttle(20, 5, 1000);
+		int threads = 16;
+		AtomicInteger admitted = new AtomicInteger();
+		race(threads, () -> {
+			for (int i = 0; i < 50; i++) {
+				if (throttle.tryAcquire("10.0.0.1", "alice").admitted()) {
+					admitted.incrementAndGet(); // A bad password: never refunded
+				}
+			}
+			return 0L;
+		});
+		assertThat(admitted).hasValue(5);
+	}
+
+	@RepeatedTest(20)
+	void aConcurrentSprayOverManyUsernamesIsHeldToTheIpCapacity() throws Exception {
+		LoginThrottle throttle = throttle(20, 5, 1000);
+		AtomicInteger admitted = new AtomicInteger();
+		race(16, () -> {
+			for (int i = 0; i < 50; i++) {
+				if (throttle.tryAcquire("10.0.0.1", "user-" + Thread.currentThread().getId() + "-" + i).admitted()) {
+					admitted.incrementAndGet();
+				}
+			}
+			return 0L;
+		});
+		assertThat(admitted).hasValue(20);
+	}
+
+	@Test
+	void concurrentRefundsGiveBackExactlyWhatWasTaken() throws Exception {
+		LoginThrottle throttle = throttle(20, 5, 1000);
+		AtomicInteger throttled = new AtomicInteger();
+		race(5, () -> {
+			for (int i = 0; i < 2_000; i++) {
+				LoginThrottle.Attempt attempt = throttle.tryAcquire("10.0.0.1", "alice");
+				if (attempt.admitted()) {
+					throttle.refund(attempt);
+				} else {
+					throttled.incrementAndGet();
+				}
+			}
+			return 0L;
+		});
+		assertThat(throttled).hasValue(0); // Never more than capacity in flight
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isTrue();
+		}
+		assertThat(throttle.tryAcquire("10.0.0.1", "alice").admitted()).isFalse();
+	}
+
+	@Test
+	void memoryStaysBoundedAndIdleKeysAreSwept() throws Exception {
+		LoginThrottle.Buckets byIp = new LoginThrottle.Buckets(20, Duration.ofMinutes(1), 1000);
+		LoginThrottle.Buckets byUser = new LoginThrottle.Buckets(5, Duration.ofMinutes(1), 1000);
+		LoginThrottle throttle = new LoginThrottle(byIp, byUser, nanos::get);
+
+		race(8, () -> {
+			for (int i = 0; i < 5000; i++) {
+				throttle.tryAcquire("10.0." + Thread.currentThread().getId() % 256 + "." + i % 256, "user-" + Thread.currentThread().getId() + "-" + i);
+			}
+			return 0L;
+		});
+		assertThat(byUser.size()).isLessThanOrEqualTo(1000);
+		assertThat(throttle.tryAcquire("10.9.9.9", "someone-new").admitted()).isFalse(); // The spray drained the shared overflow bucket
+
+		nanos.addAndGet(2 * MINUTE);
+		throttle.tryAcquire("10.9.9.9", "alice");
+		assertThat(byUser.size()).isEqualTo(1);
+		assertThat(byIp.size()).isEqualTo(1);
+	}
+
+	private LoginThrottle throttle(int ipCapacity, int userCapacity, int maxKeys) {
+		return new LoginThrottle(new LoginThrottle.Buckets(ipCapacity, Duration.ofMinutes(1), maxKeys),
+				new LoginThrottle.Buckets(userCapacity, Duration.ofMinutes(1), maxKeys), nanos::get);
+	}
+
+	private static List<Future<Long>> race(int threads, Callable<Long> task) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		return results;
+	}
+}
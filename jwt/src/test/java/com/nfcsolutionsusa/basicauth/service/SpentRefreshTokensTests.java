@@ -0,0 +1,87 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import com.nfcsolutionsusa.basicauth.model.SpentRefreshToken;
+import com.nfcsolutionsusa.basicauth.repository.SpentRefreshTokenRepo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:spent-refresh-tokens;NON_KEYWORDS=USER",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each insert commits, as it does in production
+class SpentRefreshTokensTests {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	@Autowired
+	private SpentRefreshTokenRepo repo;
+
+	private SpentRefreshTokens spentRefreshTokens;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch(); // deleteAll() skips entities that are always new
+		spentRefreshTokens = new SpentRefreshTokens(repo, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	@Test
+	void eachRefreshTokenCanBeSpentOnce() {
+		Claims claims = claims("jti-1", NOW.plus(Duration.ofDays(14)));
+
+		assertThat(spentRefreshTokens.spend(claims)).isTrue();
+		assertThat(spentRefreshTokens.spend(claims)).isFalse(); // Replay
+		assertThat(spentRefreshTokens.spend(claims("jti-2", NOW.plus(Duration.ofDays(14))))).isTrue();
+		assertThat(repo.count()).isEqualTo(2);
+	}
+
+	@Test
+	void aConcurrentlyInsertedRowMakesTheSecondSpendLose() {
+		repo.saveAndFlush(new SpentRefreshToken("jti-1", NOW.plus(Duration.ofDays(1)))); // Spent on another replica
+
+		assertThat(spentRefreshTokens.spend(claims("jti-1", NOW.plus(Duration.ofDays(1))))).isFalse();
+	}
+
+	@Test
+	void expiredOrUntrackableTokensAreNeverSpent() {
+		assertThat(spentRefreshTokens.spend(claims("jti-1", NOW))).isFalse();
+		assertThat(spentRefreshTokens.spend(claims(null, NOW.plus(Duration.ofDays(1))))).isFalse();
+		assertThat(spentRefreshTokens.spend(claims("jti-2", null))).isFalse();
+		assertThat(repo.count()).isZero();
+	}
+
+	@Test
+	void purgeDeletesOnlyExpiredRows() {
+		repo.saveAndFlush(new SpentRefreshToken("expired", NOW.minus(Duration.ofMinutes(1))));
+		repo.saveAndFlush(new SpentRefreshToken("expires-now", NOW));
+		repo.saveAndFlush(new SpentRefreshToken("live", NOW.plus(Duration.ofMinutes(1))));
+
+		assertThat(spentRefreshTokens.purge()).isEqualTo(1);
+		assertThat(repo.findAll()).extracting(SpentRefreshToken::getId).containsExactlyInAnyOrder("expires-now", "live");
+	}
+
+	private static Claims claims(String jti, Instant expiration) {
+		return Jwts.claims()
+				.id(jti)
+				.subject("alice")
+				.expiration(expiration == null ? null : Date.from(expiration))
+				.build();
+	}
+}
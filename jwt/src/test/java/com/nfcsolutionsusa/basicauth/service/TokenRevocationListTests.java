@@ -0,0 +1,75 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	@Test
+	void revokedTokensAreRejectedAndCanOnlyBeRevokedOnce() {
+		TokenRevocationList list = new TokenRevocationList(Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+		Claims revoked = claims("a", NOW.plusSeconds(600));
+
+		assertThat(list.revoke(revoked)).isTrue();
+		assertThat(list.revoke(claims("a", NOW.plusSeconds(600)))).isFalse();
+		assertThat(list.isRevoked(claims("a", NOW.plusSeconds(600)))).isTrue();
+		assertThat(list.isRevoked(claims("b", NOW.plusSeconds(600)))).isFalse();
+		assertThat(list.revoke(claims("c", NOW.minusSeconds(1)))).isFalse(); // Already expired, nothing to store
+	}
+
+	@Test
+	void entriesAreDroppedOnceTheirTokensHaveExpired() {
+		MutableClock clock = new MutableClock(NOW);
+		TokenRevocationList list = new TokenRevocationList(Duration.ofMinutes(1), clock);
+		for (int i = 0; i < 1000; i++) {
+			list.revoke(claims("short-" + i, NOW.plusSeconds(30)));
+		}
+		list.revoke(claims("long", NOW.plusSeconds(3600)));
+		assertThat(list.size()).isEqualTo(1001);
+
+		clock.now = NOW.plusSeconds(120);
+		list.revoke(claims("later", NOW.plusSeconds(3600)));
+
+		assertThat(list.size()).isEqualTo(2);
+		assertThat(list.isRevoked(claims("long", NOW.plusSeconds(3600)))).isTrue();
+	}
+
+	private static Claims claims(String id, Instant expiration) {
+		return Jwts.claims().id(id).expiration(Date.from(expiration)).build();
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedPasswordsTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger checks = new AtomicInteger();
+	private final VerifiedPasswords verified = new VerifiedPasswords(Duration.ofMinutes(1), 2, nanos::get);
+
+	@Test
+	void remembersASuccessUntilTheTtlExpires() {
+		assertThat(verified.matches("secret", "hash", check(true))).isTrue();
+		assertThat(verified.matches("secret", "hash", check(true))).isTrue();
+		assertThat(checks).hasValue(1);
+
+		nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+		assertThat(verified.matches("secret", "hash", check(true))).isTrue();
+		assertThat(checks).hasValue(1);
+
+		nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+		assertThat(verified.matches("secret", "hash", check(true))).isTrue();
+		assertThat(checks).hasValue(2);
+	}
+
+	@Test
+	void neverRemembersFailures() {
+		assertThat(verified.matches("wrong", "hash", check(false))).isFalse();
+		assertThat(verified.matches("wrong", "hash", check(false))).isFalse();
+		assertThat(checks).hasValue(2);
+		assertThat(verified.size()).isZero();
+	}
+
+	@Test
+	void aChangedStoredHashOrPasswordMisses() {
+		verified.matches("secret", "hash", check(true));
+
+		assertThat(verified.matches("secret", "new-hash", check(false))).isFalse();
+		assertThat(verified.matches("secret2", "hash", check(false))).isFalse();
+		assertThat(checks).hasValue(3);
+	}
+
+	@Test
+	void staysWithinMaxSizeAndReusesExpiredSlots() {
+		verified.matches("one", "hash", check(true));
+		verified.matches("two", "hash", check(true));
+		verified.matches("three", "hash", check(true));
+		assertThat(verified.size()).isEqualTo(2);
+		assertThat(verified.matches("three", "hash", check(false))).isFalse(); // Was not remembered
+
+		nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+		verified.matches("four", "hash", check(true));
+		assertThat(verified.size()).isEqualTo(1);
+	}
+
+	@Test
+	void zeroTtlTurnsTheCacheOff() {
+		VerifiedPasswords off = new VerifiedPasswords(Duration.ZERO, 100, nanos::get);
+		off.matches("secret", "hash", check(true));
+		off.matches("secret", "hash", check(true));
+		assertThat(checks).hasValue(2);
+		assertThat(off.size()).isZero();
+	}
+
+	private BooleanSupplier check(boolean result) {
+		return () -> {
+			checks.incrementAndGet();
+			return result;
+		};
+	}
+}
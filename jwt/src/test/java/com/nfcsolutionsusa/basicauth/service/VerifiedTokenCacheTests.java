@@ -0,0 +1,91 @@
+package com.nfcsolutionsusa.basicauth.service;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTests {
+
+	private final AtomicInteger parses = new AtomicInteger();
+	private final AtomicLong nanos = new AtomicLong();
+	private JWTService jwtService;
+	private VerifiedTokenCache cache;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JWTService() {
+			@Override
+			public Claims validateAndGetClaims(String token) {
+				parses.incrementAndGet();
+				return super.validateAndGetClaims(token);
+			}
+		};
+		cache = new VerifiedTokenCache(jwtService, 100, Duration.ofHours(1), nanos::get, Clock.systemUTC());
+	}
+
+	@Test
+	void verifiesEachTokenOnce() {
+		String token = jwtService.generateToken("alice");
+
+		assertThat(cache.verify(token).getSubject()).isEqualTo("alice");
+		assertThat(cache.verify(token).getSubject()).isEqualTo("alice");
+		assertThat(parses).hasValue(1);
+
+		cache.verify(jwtService.generateToken("bob"));
+		assertThat(parses).hasValue(2);
+	}
+
+	@Test
+	void neverCachesInvalidTokens() {
+		String token = jwtService.generateToken("alice");
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThat(cache.verify(tampered)).isNull();
+		assertThat(cache.verify(tampered)).isNull();
+		assertThat(cache.verify("not-a-jwt")).isNull();
+		assertThat(parses).hasValue(3);
+	}
+
+	@Test
+	void dropsEntriesOnceTheTokenExpires() {
+		String token = jwtService.generateToken("alice");
+		Claims claims = cache.verify(token);
+		long secondsLeft = (claims.getExpiration().getTime() - System.currentTimeMillis()) / 1000;
+
+		nanos.addAndGet(Duration.ofSeconds(secondsLeft - 5).toNanos());
+		cache.verify(token);
+		assertThat(parses).hasValue(1);
+
+		nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+		cache.verify(token);
+		assertThat(parses).hasValue(2); // Checked again instead of trusting the cached result
+	}
+
+	@Test
+	void theTokensExpNotTheMaxTtlEndsTheEntry() {
+		String token = jwtService.generateToken("alice");
+		Instant expiration = jwtService.validateAndGetClaims(token).getExpiration().toInstant();
+		// The cache's clock says the token has 10 seconds left; max-ttl alone would keep it for an hour
+		Clock clock = Clock.fixed(expiration.minusSeconds(10), ZoneOffset.UTC);
+		VerifiedTokenCache clockedCache = new VerifiedTokenCache(jwtService, 100, Duration.ofHours(1), nanos::get, clock);
+		parses.set(0);
+
+		clockedCache.verify(token);
+		nanos.addAndGet(Duration.ofSeconds(9).toNanos());
+		clockedCache.verify(token);
+		assertThat(parses).hasValue(1);
+
+		nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+		clockedCache.verify(token);
+		assertThat(parses).hasValue(2);
+	}
+}